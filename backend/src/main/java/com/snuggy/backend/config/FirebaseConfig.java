@@ -4,6 +4,9 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.messaging.FirebaseMessaging;
+import com.snuggy.backend.service.FcmPushBackend;
+import com.snuggy.backend.service.LoggingPushBackend;
+import com.snuggy.backend.service.PushBackend;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
@@ -44,4 +47,9 @@ public class FirebaseConfig {
         }
         return FirebaseMessaging.getInstance(firebaseApp);
     }
-} 
\ No newline at end of file
+
+    @Bean
+    public PushBackend pushBackend(FirebaseMessaging firebaseMessaging) {
+        return firebaseMessaging != null ? new FcmPushBackend(firebaseMessaging) : new LoggingPushBackend();
+    }
+}
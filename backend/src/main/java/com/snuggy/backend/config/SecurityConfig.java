@@ -3,6 +3,7 @@ package com.snuggy.backend.config;
 import com.snuggy.backend.security.CustomUserDetailsService;
 import com.snuggy.backend.security.JwtAuthenticationEntryPoint;
 import com.snuggy.backend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -69,6 +70,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> {
                     try {
                         authorize
+                            // Streaming responses complete on an async dispatch of an already authorized request.
+                            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                             .requestMatchers("/api/auth/**").permitAll()
                             .requestMatchers("/ws/**").permitAll()
                             .requestMatchers("/actuator/**").permitAll()
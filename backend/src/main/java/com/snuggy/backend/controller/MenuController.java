@@ -1,20 +1,43 @@
 package com.snuggy.backend.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.exception.BadRequestException;
 import com.snuggy.backend.exception.ResourceNotFoundException;
+import com.snuggy.backend.payload.BulkRowResult;
 import com.snuggy.backend.payload.MenuRequest;
+import com.snuggy.backend.payload.StockAdjustmentRequest;
+import com.snuggy.backend.payload.StockThresholdRequest;
 import com.snuggy.backend.payload.StockUpdateRequest;
+import com.snuggy.backend.service.MenuImportService;
 import com.snuggy.backend.service.MenuService;
+import com.snuggy.backend.service.MenuSnapshot;
+import com.snuggy.backend.service.TagMatchMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.snuggy.backend.util.BulkRow;
+import com.snuggy.backend.util.BulkRows;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -22,12 +45,44 @@ public class MenuController {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuController.class);
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public List<Menu> getMenu(@RequestParam(required = false) Set<String> tags) {
-        return menuService.getAllMenuItems(tags);
+    public ResponseEntity<byte[]> getMenu(@RequestParam(required = false) Set<String> tags,
+                                          @RequestParam(defaultValue = "any") String mode,
+                                          @RequestParam(required = false) Set<String> exclude,
+                                          WebRequest request) {
+        TagMatchMode matchMode;
+        try {
+            matchMode = TagMatchMode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid tag match mode: " + mode);
+        }
+        MenuSnapshot snapshot = menuService.getMenuSnapshot();
+        if (request.checkNotModified(snapshot.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson(matchMode, tags, exclude));
+    }
+
+    @GetMapping("/search")
+    public List<Menu> searchMenu(@RequestParam("q") String query, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("limit must be between 1 and 100");
+        }
+        return menuService.searchMenuItems(query, limit);
     }
 
     @PostMapping
@@ -47,4 +102,91 @@ public class MenuController {
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with id: " + id));
     }
-} 
\ No newline at end of file
+
+    @PutMapping("/{id}/low-stock-threshold")
+    @PreAuthorize("hasRole('STAFF')")
+    public Menu updateLowStockThreshold(@PathVariable Integer id, @RequestBody StockThresholdRequest request) {
+        Integer lowStockThreshold = request.getLowStockThreshold();
+        if (lowStockThreshold != null && lowStockThreshold < 0) {
+            throw new BadRequestException("lowStockThreshold must be a non-negative integer");
+        }
+        return menuService.updateLowStockThreshold(id, lowStockThreshold)
+                .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with id: " + id));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    @PreAuthorize("hasRole('STAFF')")
+    public List<BulkRowResult> importMenuItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                               InputStream body) throws IOException {
+        Iterator<BulkRow<MenuRequest>> rows = isCsv(contentType)
+                ? BulkRows.csv(body, MenuController::toMenuRequest)
+                : readJson(body, MenuRequest.class);
+        try {
+            return menuImportService.importMenuItems(rows);
+        } catch (RuntimeJsonMappingException e) {
+            throw new BadRequestException("Malformed JSON body: " + e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/stock/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    @PreAuthorize("hasRole('STAFF')")
+    public List<BulkRowResult> adjustStock(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           InputStream body) throws IOException {
+        Iterator<BulkRow<StockAdjustmentRequest>> rows = isCsv(contentType)
+                ? BulkRows.csv(body, MenuController::toStockAdjustment)
+                : readJson(body, StockAdjustmentRequest.class);
+        try {
+            return menuImportService.adjustStock(rows);
+        } catch (RuntimeJsonMappingException e) {
+            throw new BadRequestException("Malformed JSON body: " + e.getMessage());
+        }
+    }
+
+    private <T> Iterator<BulkRow<T>> readJson(InputStream body, Class<T> type) throws IOException {
+        try {
+            return BulkRows.json(body, objectMapper, type);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed JSON body: " + e.getOriginalMessage());
+        }
+    }
+
+    private static boolean isCsv(String contentType) {
+        return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE));
+    }
+
+    // CSV columns: name, price, stock, imageUrl, lowStockThreshold, tags (separated by ';')
+    private static MenuRequest toMenuRequest(Map<String, String> columns) {
+        MenuRequest request = new MenuRequest();
+        request.setName(column(columns, "name"));
+        String price = column(columns, "price");
+        request.setPrice(price == null ? null : new BigDecimal(price));
+        String stock = column(columns, "stock");
+        request.setStock(stock == null ? null : Integer.valueOf(stock));
+        request.setImageUrl(column(columns, "imageurl"));
+        String lowStockThreshold = column(columns, "lowstockthreshold");
+        request.setLowStockThreshold(lowStockThreshold == null ? null : Integer.valueOf(lowStockThreshold));
+        String tags = column(columns, "tags");
+        if (tags != null) {
+            request.setTags(Arrays.stream(tags.split(";"))
+                    .map(String::trim)
+                    .filter(tag -> !tag.isEmpty())
+                    .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+        return request;
+    }
+
+    // CSV columns: menuId, quantityChange
+    private static StockAdjustmentRequest toStockAdjustment(Map<String, String> columns) {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        String menuId = column(columns, "menuid");
+        request.setMenuId(menuId == null ? null : Integer.valueOf(menuId));
+        String quantityChange = column(columns, "quantitychange");
+        request.setQuantityChange(quantityChange == null ? null : Integer.valueOf(quantityChange));
+        return request;
+    }
+
+    private static String column(Map<String, String> columns, String name) {
+        String value = columns.get(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
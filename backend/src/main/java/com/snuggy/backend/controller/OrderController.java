@@ -4,22 +4,38 @@ import com.snuggy.backend.entity.Order;
 import com.snuggy.backend.entity.OrderStatus;
 import com.snuggy.backend.exception.BadRequestException;
 import com.snuggy.backend.exception.ResourceNotFoundException;
+import com.snuggy.backend.payload.KitchenQueueSnapshot;
+import com.snuggy.backend.payload.DispatchOutcome;
+import com.snuggy.backend.payload.DispatchRequest;
+import com.snuggy.backend.payload.OrderDetailDTO;
+import com.snuggy.backend.payload.OrderFilter;
+import com.snuggy.backend.payload.OrderPage;
+import com.snuggy.backend.payload.PickupDTO;
 import com.snuggy.backend.payload.OrderRequest;
 import com.snuggy.backend.security.UserPrincipal;
 import com.snuggy.backend.service.OrderService;
 import com.snuggy.backend.service.PaymentService;
-import com.snuggy.backend.service.PushNotificationService;
-import com.snuggy.backend.service.NotificationService;
-import com.google.firebase.messaging.FirebaseMessagingException;
+import com.snuggy.backend.service.IdempotencyService;
+import com.snuggy.backend.service.RfidTapService;
+import com.snuggy.backend.service.TapResult;
+import com.snuggy.backend.service.ActiveOrderIndex;
+import com.snuggy.backend.service.ExportService;
+import com.snuggy.backend.util.ExportFormat;
+import com.snuggy.backend.util.OrderCursor;
+import com.snuggy.backend.util.RequestDates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +45,15 @@ public class OrderController {
     
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final int MAX_DISPATCH_BATCH = 500;
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SCAN_REPEAT_HEADER = "X-Scan-Repeat";
+    // Leaves room for the "order:<userId>:" prefix within the 255-character key column.
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+
     @Autowired
     private OrderService orderService;
 
@@ -36,22 +61,91 @@ public class OrderController {
     private PaymentService paymentService;
 
     @Autowired
-    private PushNotificationService pushNotificationService;
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private RfidTapService rfidTapService;
+
+    @Autowired
+    private ExportService exportService;
 
     @Autowired
-    private NotificationService notificationService;
+    private ActiveOrderIndex activeOrderIndex;
 
     @GetMapping
     @PreAuthorize("hasRole('STAFF')")
     @Transactional(readOnly = true)
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<List<OrderDetailDTO>> getAllOrders(@RequestParam(required = false) String status,
+                                                    @RequestParam(required = false) Integer studentId,
+                                                    @RequestParam(required = false) String from,
+                                                    @RequestParam(required = false) String to,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderFilter filter = new OrderFilter();
+        if (status != null) {
+            try {
+                filter.setStatus(OrderStatus.valueOf(status.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid status: " + status);
+            }
+        }
+        filter.setStudentId(studentId);
+        filter.setFrom(RequestDates.parse("from", from));
+        filter.setTo(RequestDates.parse("to", to));
+
+        OrderCursor after = null;
+        if (cursor != null) {
+            try {
+                after = OrderCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        }
+
+        OrderPage page = orderService.getOrders(filter, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+        }
+        return response.body(page.getOrders());
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('STAFF')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                                                              @RequestParam(required = false) String from,
+                                                              @RequestParam(required = false) String to) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        Timestamp fromTimestamp = RequestDates.parse("from", from);
+        Timestamp toTimestamp = RequestDates.parse("to", to);
+        StreamingResponseBody body = out -> exportService.exportOrders(exportFormat, fromTimestamp, toTimestamp, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
-    public Order createOrder(@RequestBody OrderRequest orderRequest, @AuthenticationPrincipal UserPrincipal currentUser) {
-        return orderService.createOrder(orderRequest, currentUser.getId());
+    public ResponseEntity<?> createOrder(@RequestBody OrderRequest orderRequest,
+                                         @AuthenticationPrincipal UserPrincipal currentUser,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(orderService.createOrder(orderRequest, currentUser.getId()));
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        IdempotencyService.Result result = idempotencyService.execute(
+                "order:" + currentUser.getId() + ":" + idempotencyKey, orderRequest,
+                () -> orderService.createOrder(orderRequest, currentUser.getId()));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", String.valueOf(result.isReplayed()))
+                .body(result.getBody());
     }
 
     @PostMapping("/{id}/pay/upi")
@@ -63,24 +157,40 @@ public class OrderController {
         return ResponseEntity.ok(Map.of("transactionId", transactionId, "message", "Payment initiated."));
     }
 
+    @GetMapping("/active")
+    @PreAuthorize("hasRole('STAFF')")
+    public KitchenQueueSnapshot getActiveOrders() {
+        return activeOrderIndex.snapshot();
+    }
+
     @GetMapping("/my-orders")
     @PreAuthorize("hasRole('STUDENT')")
     @Transactional(readOnly = true)
-    public List<Order> getMyOrders(@AuthenticationPrincipal UserPrincipal currentUser) {
+    public List<OrderDetailDTO> getMyOrders(@AuthenticationPrincipal UserPrincipal currentUser) {
         return orderService.getOrdersByStudentId(currentUser.getId());
     }
 
+    /**
+     * Resolves a card tap. Readers identify themselves with {@code X-Reader-Id}; without it each
+     * signed-in user counts as its own reader. Repeated reports of one tap are answered from memory
+     * and flagged with {@code X-Scan-Repeat: true}.
+     */
     @GetMapping("/rfid/{uid}")
     @PreAuthorize("hasAnyRole('STUDENT', 'STAFF')")
-    @Transactional(readOnly = true)
-    public ResponseEntity<Order> getRfidOrders(@PathVariable String uid) {
-        return orderService.getOrdersByRfidUid(uid)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<PickupDTO> getRfidOrders(@PathVariable String uid,
+                                                   @RequestHeader(value = "X-Reader-Id", required = false) String readerId,
+                                                   @AuthenticationPrincipal UserPrincipal currentUser) {
+        TapResult result = rfidTapService.tap(readerId != null ? readerId : "user-" + currentUser.getId(), uid);
+        PickupDTO pickup = result.getPickup()
                 .orElseThrow(() -> new ResourceNotFoundException("No active orders found for RFID: " + uid));
+        return ResponseEntity.ok()
+                .header(SCAN_REPEAT_HEADER, String.valueOf(result.isRepeat()))
+                .body(pickup);
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Integer id, @RequestBody Map<String, String> request) {
+    @PreAuthorize("hasRole('STAFF')")
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Integer id, @RequestBody Map<String, String> request) {
         String statusStr = request.get("status");
         if (statusStr == null) {
             throw new BadRequestException("Status is required.");
@@ -91,63 +201,68 @@ public class OrderController {
         } catch (IllegalArgumentException e) {
             throw new BadRequestException("Invalid status value: " + statusStr);
         }
-        return orderService.updateOrderStatus(id, status)
-                .map(ResponseEntity::ok)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        switch (orderService.transitionStatus(id, status)) {
+            case APPLIED:
+                return ResponseEntity.ok(Map.of("id", id, "status", status));
+            case NOT_FOUND:
+                throw new ResourceNotFoundException("Order not found with id: " + id);
+            default:
+                throw new BadRequestException("Order cannot be moved to " + status + " from its current status.");
+        }
+    }
+
+    @PostMapping("/dispatch")
+    @PreAuthorize("hasRole('STAFF')")
+    public List<DispatchOutcome> dispatchOrders(@RequestBody DispatchRequest request) {
+        List<Integer> orderIds = request.getOrderIds();
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new BadRequestException("orderIds is required.");
+        }
+        if (orderIds.size() > MAX_DISPATCH_BATCH) {
+            throw new BadRequestException("At most " + MAX_DISPATCH_BATCH + " orders can be dispatched at once.");
+        }
+        if (orderIds.contains(null)) {
+            throw new BadRequestException("orderIds must not contain null.");
+        }
+        return orderService.dispatchOrders(orderIds);
     }
 
     @PostMapping("/{id}/dispatch")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<?> dispatchOrder(@PathVariable Integer id) {
-        Order order = orderService.getOrderById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
-
-        if (order.getStatus() != OrderStatus.PAID) {
-            return ResponseEntity.badRequest().body("Order must be in PAID status to be dispatched.");
+        DispatchOutcome outcome = orderService.dispatchOrders(List.of(id)).get(0);
+        switch (outcome.getResult()) {
+            case "DISPATCHED":
+                break;
+            case "NOT_FOUND":
+                throw new ResourceNotFoundException("Order not found with id: " + id);
+            default:
+                return ResponseEntity.badRequest().body("Order must be in PAID status to be dispatched.");
         }
 
-        orderService.updateOrderStatus(id, OrderStatus.AWAITING_CONFIRMATION);
-
         String responseMessage = "Order status updated to AWAITING_CONFIRMATION.";
-        
-        if (order.getUser().getFcmToken() == null || order.getUser().getFcmToken().trim().isEmpty()) {
+        if ("NO_TOKEN".equals(outcome.getNotification())) {
             responseMessage += " No FCM token available for user, notification not sent.";
         } else {
-            try {
-                pushNotificationService.sendNotificationToToken(
-                        order.getUser().getFcmToken(),
-                        "Order Ready for Collection",
-                        "Please confirm collection for your order #" + order.getId(),
-                        Map.of("orderId", String.valueOf(order.getId()))
-                );
-                responseMessage += " Notification sent to user for collection confirmation.";
-            } catch (FirebaseMessagingException e) {
-                logger.error("Failed to send push notification for orderId: {}", id, e);
-                responseMessage += " Failed to send notification: " + e.getMessage();
-            }
+            responseMessage += " Notification queued for user to confirm collection.";
         }
-
         return ResponseEntity.ok(responseMessage);
     }
 
     @PostMapping("/{id}/confirm-collection")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> confirmCollection(@PathVariable Integer id, @AuthenticationPrincipal UserPrincipal currentUser) {
-         Order order = orderService.getOrderById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
-
-        if (!order.getUser().getId().equals(currentUser.getId())) {
-            return ResponseEntity.status(403).body("You are not authorized to confirm this order.");
-        }
-
-        if (order.getStatus() != OrderStatus.AWAITING_CONFIRMATION) {
-            return ResponseEntity.badRequest().body("Order is not awaiting confirmation.");
+        switch (orderService.confirmCollection(id, currentUser.getId())) {
+            case APPLIED:
+                break;
+            case NOT_FOUND:
+                throw new ResourceNotFoundException("Order not found with id: " + id);
+            case NOT_OWNER:
+                return ResponseEntity.status(403).body("You are not authorized to confirm this order.");
+            default:
+                return ResponseEntity.badRequest().body("Order is not awaiting confirmation.");
         }
 
-        orderService.updateOrderStatus(id, OrderStatus.COMPLETED);
-        
-        notificationService.sendOrderConfirmationToStaff(order);
-        
         return ResponseEntity.ok("Order collection confirmed.");
     }
-} 
\ No newline at end of file
+}
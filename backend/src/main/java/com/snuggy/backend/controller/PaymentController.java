@@ -1,6 +1,7 @@
 package com.snuggy.backend.controller;
 
 import com.snuggy.backend.payload.PaymentCallbackRequest;
+import com.snuggy.backend.service.IdempotencyService;
 import com.snuggy.backend.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +10,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/payment")
 public class PaymentController {
@@ -16,13 +19,20 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("/callback")
     public ResponseEntity<?> handlePaymentCallback(@RequestBody PaymentCallbackRequest callbackRequest) {
-
-
-
-
-        paymentService.handleCallback(callbackRequest);
+        String transactionId = callbackRequest.getTransactionId();
+        if (transactionId == null || transactionId.isBlank()) {
+            paymentService.handleCallback(callbackRequest);
+            return ResponseEntity.ok().build();
+        }
+        idempotencyService.execute("payment:" + transactionId, callbackRequest, () -> {
+            paymentService.handleCallback(callbackRequest);
+            return Map.of("transactionId", transactionId);
+        });
         return ResponseEntity.ok().build();
     }
 } 
\ No newline at end of file
@@ -4,26 +4,38 @@ import com.snuggy.backend.entity.RfidMapping;
 import com.snuggy.backend.exception.BadRequestException;
 import com.snuggy.backend.exception.ResourceNotFoundException;
 import com.snuggy.backend.payload.AdminRfidRegisterRequest;
+import com.snuggy.backend.payload.BulkRowResult;
+import com.snuggy.backend.payload.RfidProvisionRequest;
 import com.snuggy.backend.payload.RfidRegisterRequest;
 import com.snuggy.backend.security.UserPrincipal;
 import com.snuggy.backend.service.OtpService;
+import com.snuggy.backend.service.RfidImportService;
 import com.snuggy.backend.service.RfidService;
 import com.snuggy.backend.service.UserService;
+import com.snuggy.backend.util.BulkRows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rfid")
 public class RfidController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     @Autowired
     private RfidService rfidService;
 
+    @Autowired
+    private RfidImportService rfidImportService;
+
     @Autowired
     private OtpService otpService;
     
@@ -93,6 +105,17 @@ public class RfidController {
         }
     }
 
+    /**
+     * Maps many cards at once from a CSV with a {@code uid} column and either an {@code email} or a
+     * {@code studentId} column. Existing cards and students are never remapped; each clash is
+     * reported on its row.
+     */
+    @PostMapping(value = "/admin/bulk", consumes = TEXT_CSV_VALUE)
+    @PreAuthorize("hasRole('STAFF')")
+    public List<BulkRowResult> provisionRfids(InputStream body) throws IOException {
+        return rfidImportService.provision(BulkRows.csv(body, RfidController::toProvisionRequest));
+    }
+
     @GetMapping("/{uid}")
     @PreAuthorize("hasAnyRole('STUDENT', 'STAFF')")
     public ResponseEntity<RfidMapping> getRfidMapping(@PathVariable String uid) {
@@ -100,4 +123,18 @@ public class RfidController {
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("RFID mapping not found for UID: " + uid));
     }
-} 
\ No newline at end of file
+
+    private static RfidProvisionRequest toProvisionRequest(Map<String, String> columns) {
+        RfidProvisionRequest request = new RfidProvisionRequest();
+        request.setRfidUid(column(columns, "uid"));
+        request.setEmail(column(columns, "email"));
+        String studentId = column(columns, "studentid");
+        request.setStudentId(studentId == null ? null : Integer.valueOf(studentId));
+        return request;
+    }
+
+    private static String column(Map<String, String> columns, String name) {
+        String value = columns.get(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -2,13 +2,21 @@ package com.snuggy.backend.controller;
 
 import com.snuggy.backend.payload.TransactionDTO;
 import com.snuggy.backend.security.UserPrincipal;
+import com.snuggy.backend.service.ExportService;
 import com.snuggy.backend.service.TransactionService;
+import com.snuggy.backend.util.ExportFormat;
+import com.snuggy.backend.util.RequestDates;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +27,9 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ExportService exportService;
+
     @GetMapping
     @PreAuthorize("hasRole('STAFF')")
     @Transactional(readOnly = true)
@@ -36,4 +47,19 @@ public class TransactionController {
                 .map(TransactionDTO::fromEntity)
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('STAFF')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "ndjson") String format,
+                                                                    @RequestParam(required = false) String from,
+                                                                    @RequestParam(required = false) String to) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        Timestamp fromTimestamp = RequestDates.parse("from", from);
+        Timestamp toTimestamp = RequestDates.parse("to", to);
+        StreamingResponseBody body = out -> exportService.exportTransactions(exportFormat, fromTimestamp, toTimestamp, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+}
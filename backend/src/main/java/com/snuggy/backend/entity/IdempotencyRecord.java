@@ -0,0 +1,40 @@
+package com.snuggy.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Entity
+// Expired keys are purged by expires_at. Declared here because ddl-auto=update, not Flyway,
+// maintains the schema; V1.16 keeps the same definition.
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(length = 64)
+    private String requestFingerprint;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Timestamp createdAt;
+
+    @Column(nullable = false)
+    private Timestamp expiresAt;
+
+    public IdempotencyRecord(String key, String requestFingerprint, String responseBody, Timestamp createdAt, Timestamp expiresAt) {
+        this.key = key;
+        this.requestFingerprint = requestFingerprint;
+        this.responseBody = responseBody;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+}
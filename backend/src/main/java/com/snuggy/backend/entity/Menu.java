@@ -25,6 +25,8 @@ public class Menu {
     
     @Column(length = 1024)
     private String imageUrl;
+
+    private Integer lowStockThreshold;
     
     @CreationTimestamp
     private Timestamp createdAt;
@@ -12,12 +12,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name="orders")
+// Keyset pagination of the staff order listing walks (created_at, id) newest first, optionally
+// narrowed by status or student. Declared here because ddl-auto=update, not Flyway, maintains the
+// schema; V1.19 keeps the same definitions for databases migrated with Flyway.
+@Table(name="orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_orders_status_created_at_id", columnList = "status, created_at DESC, id DESC"),
+        @Index(name = "idx_orders_student_created_at_id", columnList = "student_id, created_at DESC, id DESC")
+})
 @Data
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
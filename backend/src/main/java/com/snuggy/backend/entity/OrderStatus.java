@@ -1,9 +1,45 @@
 package com.snuggy.backend.entity;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     PAID,
     AWAITING_CONFIRMATION,
     COMPLETED,
-    CANCELLED
-} 
\ No newline at end of file
+    CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(PENDING, PAID, CANCELLED);
+        allow(PAID, AWAITING_CONFIRMATION, CANCELLED);
+        allow(AWAITING_CONFIRMATION, COMPLETED, CANCELLED);
+        for (OrderStatus status : values()) {
+            SOURCES.computeIfAbsent(status, key -> EnumSet.noneOf(OrderStatus.class));
+            SOURCES.put(status, Collections.unmodifiableSet(SOURCES.get(status)));
+        }
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        for (OrderStatus target : targets) {
+            SOURCES.computeIfAbsent(target, key -> EnumSet.noneOf(OrderStatus.class)).add(from);
+        }
+    }
+
+    /**
+     * The statuses an order may be in for a move to this status to be allowed; empty for statuses
+     * that can only be set when an order is created.
+     */
+    public Set<OrderStatus> allowedSources() {
+        return SOURCES.get(this);
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return target.allowedSources().contains(this);
+    }
+}
@@ -0,0 +1,47 @@
+package com.snuggy.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+@Entity
+// JPA cannot express V1.20's partial indexes; these cover the relay's unpublished scans by
+// (published_at, id) and the per-order lookups, and also serve the published_at cleanup.
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_published_at_id", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_events_aggregate_id", columnList = "aggregate_id, published_at")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The order the event belongs to; events of one order are published in id order.
+    @Column(nullable = false)
+    private Integer aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private Timestamp createdAt;
+
+    private Timestamp publishedAt;
+
+    public OutboxEvent(Integer aggregateId, OutboxEventType eventType, String payload) {
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+}
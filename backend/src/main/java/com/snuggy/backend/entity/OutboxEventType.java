@@ -0,0 +1,7 @@
+package com.snuggy.backend.entity;
+
+public enum OutboxEventType {
+    NEW_ORDER,
+    ORDER_CONFIRMED,
+    COLLECTION_NOTICE
+}
@@ -0,0 +1,50 @@
+package com.snuggy.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Entity
+// Debits sum a student's uncompacted tail, and the history is read per student by time.
+// V1.15 only runs where Flyway is enabled, so ddl-auto=update creates these from here.
+@Table(name = "wallet_entries", indexes = {
+        @Index(name = "idx_wallet_entries_student_compacted", columnList = "student_id, compacted"),
+        @Index(name = "idx_wallet_entries_student_created_at", columnList = "student_id, created_at")
+})
+@Data
+@NoArgsConstructor
+public class WalletEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer studentId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private WalletEntryType entryType;
+
+    private Integer orderId;
+
+    @Column(nullable = false)
+    private boolean compacted;
+
+    @Column(nullable = false)
+    private Timestamp createdAt;
+
+    public WalletEntry(Integer studentId, BigDecimal amount, WalletEntryType entryType, Integer orderId) {
+        this.studentId = studentId;
+        this.amount = amount;
+        this.entryType = entryType;
+        this.orderId = orderId;
+        this.createdAt = new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,7 @@
+package com.snuggy.backend.entity;
+
+public enum WalletEntryType {
+    TOP_UP,
+    ORDER_PAYMENT,
+    REFUND
+}
@@ -0,0 +1,49 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.entity.Order;
+import com.snuggy.backend.entity.OrderItem;
+import com.snuggy.backend.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+public class ActiveOrderView {
+    private Integer id;
+    private Integer studentId;
+    private String studentName;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Timestamp createdAt;
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private Integer menuItemId;
+        private String name;
+        private Integer quantity;
+    }
+
+    /**
+     * @param menuItemName resolves the display name of an item's menu entry, so callers holding
+     *                     menu summaries can avoid initializing lazy menu references
+     */
+    public static ActiveOrderView from(Order order, Function<OrderItem, String> menuItemName) {
+        List<Item> items = order.getOrderItems().stream()
+                .map(item -> new Item(item.getMenuItem().getId(), menuItemName.apply(item), item.getQuantity()))
+                .collect(Collectors.toList());
+        return new ActiveOrderView(order.getId(), order.getUser().getId(), order.getUser().getName(), order.getStatus(),
+                order.getTotalAmount(), order.getCreatedAt(), items);
+    }
+
+    public ActiveOrderView withStatus(OrderStatus newStatus) {
+        return new ActiveOrderView(id, studentId, studentName, newStatus, totalAmount, createdAt, items);
+    }
+}
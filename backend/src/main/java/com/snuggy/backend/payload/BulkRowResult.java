@@ -0,0 +1,13 @@
+package com.snuggy.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkRowResult {
+    private int row;
+    private Integer id;
+    private String status;
+    private String message;
+}
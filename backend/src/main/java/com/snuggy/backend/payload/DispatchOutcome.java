@@ -0,0 +1,14 @@
+package com.snuggy.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DispatchOutcome {
+    private Integer orderId;
+    // DISPATCHED, NOT_FOUND or NOT_ALLOWED
+    private String result;
+    // QUEUED or NO_TOKEN for dispatched orders, null otherwise
+    private String notification;
+}
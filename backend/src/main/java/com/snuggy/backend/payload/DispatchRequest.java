@@ -0,0 +1,10 @@
+package com.snuggy.backend.payload;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class DispatchRequest {
+    private List<Integer> orderIds;
+}
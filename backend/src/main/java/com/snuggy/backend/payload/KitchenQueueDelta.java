@@ -0,0 +1,23 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class KitchenQueueDelta {
+
+    public enum Type {
+        ADDED,
+        STATUS_CHANGED,
+        REMOVED
+    }
+
+    private long sequence;
+    private Type type;
+    private Integer orderId;
+    private OrderStatus status;
+    // Only set for ADDED; the other deltas carry just the id and new status.
+    private ActiveOrderView order;
+}
@@ -0,0 +1,13 @@
+package com.snuggy.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class KitchenQueueSnapshot {
+    private long sequence;
+    private List<ActiveOrderView> orders;
+}
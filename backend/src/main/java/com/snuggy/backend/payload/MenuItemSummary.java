@@ -0,0 +1,10 @@
+package com.snuggy.backend.payload;
+
+import java.math.BigDecimal;
+
+public interface MenuItemSummary {
+    Integer getId();
+    String getName();
+    BigDecimal getPrice();
+    Integer getStock();
+}
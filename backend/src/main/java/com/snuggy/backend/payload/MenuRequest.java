@@ -10,5 +10,6 @@ public class MenuRequest {
     private BigDecimal price;
     private Integer stock;
     private String imageUrl;
+    private Integer lowStockThreshold;
     private Set<String> tags;
 } 
\ No newline at end of file
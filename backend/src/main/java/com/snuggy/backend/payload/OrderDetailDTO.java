@@ -0,0 +1,55 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.entity.Order;
+import com.snuggy.backend.entity.OrderItem;
+import com.snuggy.backend.entity.OrderStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+public class OrderDetailDTO {
+    private Integer id;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Timestamp createdAt;
+    private Timestamp updatedAt;
+    private OrderUserDTO user;
+    private List<OrderItemDTO> orderItems;
+
+    public static OrderDetailDTO of(OrderSummaryDTO summary, List<OrderItemDTO> items) {
+        OrderDetailDTO dto = new OrderDetailDTO();
+        dto.setId(summary.getId());
+        dto.setStatus(summary.getStatus());
+        dto.setTotalAmount(summary.getTotalAmount());
+        dto.setCreatedAt(summary.getCreatedAt());
+        dto.setUpdatedAt(summary.getUpdatedAt());
+        dto.setUser(summary.getUser());
+        dto.setOrderItems(items);
+        return dto;
+    }
+
+    /**
+     * Builds the DTO from an order whose user and items are already loaded.
+     *
+     * @param menuItemName resolves the name of an item's menu entry without touching lazy references
+     */
+    public static OrderDetailDTO from(Order order, Function<OrderItem, String> menuItemName) {
+        OrderDetailDTO dto = new OrderDetailDTO();
+        dto.setId(order.getId());
+        dto.setStatus(order.getStatus());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setUpdatedAt(order.getUpdatedAt());
+        dto.setUser(new OrderUserDTO(order.getUser().getId(), order.getUser().getName()));
+        dto.setOrderItems(order.getOrderItems().stream()
+                .map(item -> new OrderItemDTO(order.getId(), item.getId(), item.getMenuItem().getId(),
+                        menuItemName.apply(item), item.getQuantity(), item.getPrice()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
@@ -0,0 +1,14 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.entity.OrderStatus;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+public class OrderFilter {
+    private OrderStatus status;
+    private Integer studentId;
+    private Timestamp from;
+    private Timestamp to;
+}
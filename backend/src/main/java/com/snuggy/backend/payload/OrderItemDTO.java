@@ -0,0 +1,23 @@
+package com.snuggy.backend.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * An order line as served to clients. {@code menuItem} stays the bare menu id, as it was when
+ * entities were serialized, with the name alongside it.
+ */
+@Data
+@AllArgsConstructor
+public class OrderItemDTO {
+    @JsonIgnore
+    private Integer orderId;
+    private Long id;
+    private Integer menuItem;
+    private String menuItemName;
+    private Integer quantity;
+    private BigDecimal price;
+}
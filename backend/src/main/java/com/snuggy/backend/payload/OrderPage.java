@@ -0,0 +1,14 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.util.OrderCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPage {
+    private List<OrderDetailDTO> orders;
+    private OrderCursor nextCursor;
+}
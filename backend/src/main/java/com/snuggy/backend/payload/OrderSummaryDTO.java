@@ -0,0 +1,30 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.entity.OrderStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+public class OrderSummaryDTO {
+    private Integer id;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Timestamp createdAt;
+    private Timestamp updatedAt;
+    private OrderUserDTO user;
+
+    // Used by JPQL constructor expressions in OrderRepository.
+    public OrderSummaryDTO(Integer id, OrderStatus status, BigDecimal totalAmount, Timestamp createdAt,
+                           Timestamp updatedAt, Integer userId, String userName) {
+        this.id = id;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.user = new OrderUserDTO(userId, userName);
+    }
+}
@@ -0,0 +1,11 @@
+package com.snuggy.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OrderUserDTO {
+    private Integer id;
+    private String name;
+}
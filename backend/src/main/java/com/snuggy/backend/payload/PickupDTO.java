@@ -0,0 +1,23 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * The order a student is collecting at the pickup counter. Field names match
+ * {@link OrderDetailDTO} so clients parse both the same way.
+ */
+@Data
+@AllArgsConstructor
+public class PickupDTO {
+    private Integer id;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Timestamp createdAt;
+    private List<OrderItemDTO> orderItems;
+}
@@ -0,0 +1,17 @@
+package com.snuggy.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushMessage {
+    private String token;
+    private String title;
+    private String body;
+    private Map<String, String> data;
+}
@@ -0,0 +1,10 @@
+package com.snuggy.backend.payload;
+
+import lombok.Data;
+
+@Data
+public class RfidProvisionRequest {
+    private String rfidUid;
+    private String email;
+    private Integer studentId;
+}
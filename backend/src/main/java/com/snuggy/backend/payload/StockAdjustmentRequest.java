@@ -0,0 +1,9 @@
+package com.snuggy.backend.payload;
+
+import lombok.Data;
+
+@Data
+public class StockAdjustmentRequest {
+    private Integer menuId;
+    private Integer quantityChange;
+}
@@ -0,0 +1,15 @@
+package com.snuggy.backend.payload;
+
+import com.snuggy.backend.service.StockLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockAlert {
+    private Integer menuId;
+    private String productName;
+    private int stock;
+    private StockLevel level;
+    private StockLevel previousLevel;
+}
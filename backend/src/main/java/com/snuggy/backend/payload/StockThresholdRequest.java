@@ -0,0 +1,8 @@
+package com.snuggy.backend.payload;
+
+import lombok.Data;
+
+@Data
+public class StockThresholdRequest {
+    private Integer lowStockThreshold;
+}
@@ -2,6 +2,40 @@ package com.snuggy.backend.repository;
 
 import com.snuggy.backend.entity.Balance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
 
 public interface BalanceRepository extends JpaRepository<Balance, Integer> {
-} 
\ No newline at end of file
+
+    /**
+     * Takes {@code amount} off the snapshot in one guarded statement, provided the snapshot plus the
+     * uncompacted tail covers it. The tail is read with the statement's snapshot, so if a compaction
+     * of the same row commits while this waits for the row lock, its entries would be counted twice;
+     * the {@code last_updated_at} check, which only compaction moves, refuses the debit instead.
+     *
+     * @return 1 if the debit was applied, 0 if it was refused or the balance does not exist
+     */
+    @Modifying
+    @Query(value = "UPDATE balances SET amount = amount - :amount WHERE student_id = :studentId " +
+                   "AND amount + COALESCE((SELECT SUM(e.amount) FROM wallet_entries e " +
+                   "WHERE e.student_id = :studentId AND e.compacted = FALSE), 0) >= :amount " +
+                   "AND last_updated_at IS NOT DISTINCT FROM " +
+                   "(SELECT b.last_updated_at FROM balances b WHERE b.student_id = :studentId)", nativeQuery = true)
+    int debit(@Param("studentId") Integer studentId, @Param("amount") BigDecimal amount);
+
+    // SKIP LOCKED keeps two concurrent runs from claiming the same entries, and the outer
+    // compacted = FALSE re-check stops an entry being folded twice if one run waited on the other.
+    @Modifying
+    @Query(value = "WITH folded AS (" +
+                   "UPDATE wallet_entries SET compacted = TRUE WHERE compacted = FALSE AND id IN (" +
+                   "SELECT id FROM wallet_entries WHERE compacted = FALSE ORDER BY id LIMIT :batchSize " +
+                   "FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING student_id, amount) " +
+                   "UPDATE balances b SET amount = b.amount + f.total, last_updated_at = CURRENT_TIMESTAMP " +
+                   "FROM (SELECT student_id, SUM(amount) AS total FROM folded GROUP BY student_id) f " +
+                   "WHERE b.student_id = f.student_id", nativeQuery = true)
+    int compact(@Param("batchSize") int batchSize);
+}
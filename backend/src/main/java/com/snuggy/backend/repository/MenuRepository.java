@@ -1,23 +1,24 @@
 package com.snuggy.backend.repository;
 
 import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.payload.MenuItemSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-public interface MenuRepository extends JpaRepository<Menu, Integer> {
+public interface MenuRepository extends JpaRepository<Menu, Integer>, MenuRepositoryCustom {
     List<Menu> findDistinctByTags_NameIn(Set<String> tags);
+
+    List<MenuItemSummary> findAllByIdIn(Collection<Integer> ids);
     
     @Query("SELECT m FROM Menu m LEFT JOIN FETCH m.tags WHERE m.id = :id")
     Optional<Menu> findByIdWithTags(@Param("id") Integer id);
     
     @Query("SELECT DISTINCT m FROM Menu m LEFT JOIN FETCH m.tags")
     List<Menu> findAllWithTags();
-    
-    @Query("SELECT DISTINCT m FROM Menu m LEFT JOIN FETCH m.tags t WHERE t.name IN :tagNames")
-    List<Menu> findDistinctByTagsNameInWithTags(@Param("tagNames") Set<String> tagNames);
 }
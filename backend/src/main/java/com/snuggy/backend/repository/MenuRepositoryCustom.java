@@ -0,0 +1,49 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.payload.MenuRequest;
+import com.snuggy.backend.payload.StockAdjustmentRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public interface MenuRepositoryCustom {
+
+    /**
+     * Decrements stock for every entry with one guarded UPDATE, locking the rows in ascending menu
+     * id order so concurrent orders always lock rows in the same sequence.
+     * <p>
+     * This is one statement over {@code unnest} of the id and quantity arrays, not a JDBC batch of
+     * per-item UPDATEs. A batch can report update counts but not the stock left, which the caller
+     * needs for low-stock alerts; both cost one round trip.
+     *
+     * @return the stock left after the update for each reserved menu id; an id missing from the
+     *         result had insufficient stock, and the caller must then roll back
+     */
+    Map<Integer, Integer> reserveStock(SortedMap<Integer, Integer> quantitiesByMenuId);
+
+    Map<Integer, Integer> findAllStockLevels();
+
+    void applyStockDeltas(SortedMap<Integer, Integer> deltasByMenuId);
+
+    /**
+     * Inserts all items as one JDBC batch, skipping names that already exist.
+     *
+     * @return the update count per item, 0 where the name was taken
+     */
+    int[] insertMenuItems(List<MenuRequest> items);
+
+    Map<String, Integer> findIdsByNames(Collection<String> names);
+
+    void insertMenuTags(List<Map.Entry<Integer, Integer>> menuTagIds);
+
+    /**
+     * Applies every adjustment as one JDBC batch, in the order given. An adjustment that would take
+     * stock below zero is skipped.
+     *
+     * @return the update count per adjustment, 0 where the menu item does not exist or the
+     *         adjustment was skipped
+     */
+    int[] adjustStock(List<StockAdjustmentRequest> adjustments);
+}
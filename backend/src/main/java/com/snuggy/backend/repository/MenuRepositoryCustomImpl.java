@@ -0,0 +1,138 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.payload.MenuRequest;
+import com.snuggy.backend.payload.StockAdjustmentRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class MenuRepositoryCustomImpl implements MenuRepositoryCustom {
+
+    // The CTE locks the requested rows in id order before any is updated, so concurrent orders
+    // always lock in the same sequence.
+    private static final String RESERVE_STOCK_SQL =
+            "WITH requested AS MATERIALIZED (" +
+            "SELECT m.id, r.quantity FROM menu m JOIN unnest(?::int[], ?::int[]) AS r(id, quantity) ON r.id = m.id " +
+            "ORDER BY m.id FOR UPDATE OF m) " +
+            "UPDATE menu SET stock = menu.stock - requested.quantity FROM requested " +
+            "WHERE menu.id = requested.id AND menu.stock >= requested.quantity " +
+            "RETURNING menu.id, menu.stock";
+
+    private static final String APPLY_STOCK_DELTA_SQL =
+            "UPDATE menu SET stock = stock + ? WHERE id = ?";
+
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE menu SET stock = stock + ? WHERE id = ? AND stock + ? >= 0";
+
+    private static final String INSERT_MENU_ITEM_SQL =
+            "INSERT INTO menu (name, price, stock, image_url, low_stock_threshold, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (name) DO NOTHING";
+
+    private static final String INSERT_MENU_TAG_SQL =
+            "INSERT INTO menu_tags (menu_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<Integer, Integer> reserveStock(SortedMap<Integer, Integer> quantitiesByMenuId) {
+        Map<Integer, Integer> stockLevels = new HashMap<>();
+        if (quantitiesByMenuId.isEmpty()) {
+            return stockLevels;
+        }
+        jdbcTemplate.query(RESERVE_STOCK_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("integer", quantitiesByMenuId.keySet().toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("integer", quantitiesByMenuId.values().toArray()));
+                },
+                rs -> { stockLevels.put(rs.getInt("id"), rs.getInt("stock")); });
+        return stockLevels;
+    }
+
+    @Override
+    public Map<Integer, Integer> findAllStockLevels() {
+        Map<Integer, Integer> stockLevels = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock FROM menu",
+                rs -> { stockLevels.put(rs.getInt("id"), rs.getInt("stock")); });
+        return stockLevels;
+    }
+
+    @Override
+    public void applyStockDeltas(SortedMap<Integer, Integer> deltasByMenuId) {
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(deltasByMenuId.entrySet());
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setInt(2, entry.getKey());
+        });
+    }
+
+    @Override
+    public int[] insertMenuItems(List<MenuRequest> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_MENU_ITEM_SQL, items, items.size(), (ps, item) -> {
+            ps.setString(1, item.getName());
+            ps.setBigDecimal(2, item.getPrice());
+            ps.setInt(3, item.getStock());
+            if (item.getImageUrl() != null) {
+                ps.setString(4, item.getImageUrl());
+            } else {
+                ps.setNull(4, Types.VARCHAR);
+            }
+            if (item.getLowStockThreshold() != null) {
+                ps.setInt(5, item.getLowStockThreshold());
+            } else {
+                ps.setNull(5, Types.INTEGER);
+            }
+        });
+        return counts[0];
+    }
+
+    @Override
+    public Map<String, Integer> findIdsByNames(Collection<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query("SELECT id, name FROM menu WHERE name = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", names.toArray())),
+                rs -> { ids.put(rs.getString("name"), rs.getInt("id")); });
+        return ids;
+    }
+
+    @Override
+    public void insertMenuTags(List<Map.Entry<Integer, Integer>> menuTagIds) {
+        if (menuTagIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MENU_TAG_SQL, menuTagIds, menuTagIds.size(), (ps, pair) -> {
+            ps.setInt(1, pair.getKey());
+            ps.setInt(2, pair.getValue());
+        });
+    }
+
+    @Override
+    public int[] adjustStock(List<StockAdjustmentRequest> adjustments) {
+        if (adjustments.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, adjustments, adjustments.size(), (ps, adjustment) -> {
+            ps.setInt(1, adjustment.getQuantityChange());
+            ps.setInt(2, adjustment.getMenuId());
+            ps.setInt(3, adjustment.getQuantityChange());
+        });
+        return counts[0];
+    }
+}
@@ -2,16 +2,33 @@ package com.snuggy.backend.repository;
 
 import com.snuggy.backend.entity.Order;
 import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.payload.OrderItemDTO;
+import com.snuggy.backend.payload.OrderSummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
-    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user u JOIN FETCH u.roles LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem ORDER BY o.createdAt DESC")
-    List<Order> findAllWithUserAndRoles();
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderRepositoryCustom {
+    @Query("SELECT new com.snuggy.backend.payload.OrderSummaryDTO(o.id, o.status, o.totalAmount, o.createdAt, o.updatedAt, u.id, u.name) " +
+           "FROM Order o JOIN o.user u WHERE o.id IN :ids ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT new com.snuggy.backend.payload.OrderSummaryDTO(o.id, o.status, o.totalAmount, o.createdAt, o.updatedAt, u.id, u.name) " +
+           "FROM Order o JOIN o.user u WHERE u.id = :studentId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDTO> findSummariesByStudentId(@Param("studentId") Integer studentId);
+
+    @Query("SELECT new com.snuggy.backend.payload.OrderItemDTO(oi.order.id, oi.id, m.id, m.name, oi.quantity, oi.price) " +
+           "FROM OrderItem oi JOIN oi.menuItem m WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemDTO> findItemsByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem " +
+           "WHERE o.status IN :statuses ORDER BY o.createdAt, o.id")
+    List<Order> findAllByStatusInWithUserAndItems(@Param("statuses") Collection<OrderStatus> statuses);
     
     List<Order> findByUserId(Integer userId);
     List<Order> findByUserIdAndStatus(Integer userId, String status);
@@ -20,14 +37,33 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     @Query("SELECT o FROM Order o JOIN FETCH o.user u JOIN FETCH u.roles LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem WHERE o.id = :id")
     Optional<Order> findByIdWithUserAndRoles(@Param("id") Integer id);
     
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Integer id);
+
+    /**
+     * Moves an order to {@code status} only if it is currently in one of {@code allowedSources},
+     * as a single statement.
+     *
+     * @return 1 if the transition was applied, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.id = :id AND o.status IN :allowedSources")
+    int transition(@Param("id") Integer id, @Param("status") OrderStatus status,
+                   @Param("allowedSources") Collection<OrderStatus> allowedSources);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.id = :id AND o.user.id = :studentId AND o.status IN :allowedSources")
+    int transitionForStudent(@Param("id") Integer id, @Param("studentId") Integer studentId,
+                             @Param("status") OrderStatus status,
+                             @Param("allowedSources") Collection<OrderStatus> allowedSources);
+
+    boolean existsByIdAndUser_Id(Integer id, Integer userId);
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem WHERE o.id = :id")
+    Optional<Order> findByIdWithUserAndItems(@Param("id") Integer id);
+
     @Query("SELECT o FROM Order o WHERE o.id = :id AND o.user.id = :userId")
     Optional<Order> findByIdAndUserId(@Param("id") Integer id, @Param("userId") Integer userId);
-    
-    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user u JOIN FETCH u.roles LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem WHERE u.id = :studentId")
-    List<Order> findByStudentIdWithUserAndRoles(@Param("studentId") Integer studentId);
-    
-    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user u JOIN FETCH u.roles LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem " +
-           "WHERE u.id = :studentId AND o.status IN :activeStatuses " +
-           "ORDER BY o.createdAt DESC")
-    List<Order> findActiveOrdersByStudentId(@Param("studentId") Integer studentId, @Param("activeStatuses") List<OrderStatus> activeStatuses);
 }
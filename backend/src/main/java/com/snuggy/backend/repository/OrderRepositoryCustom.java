@@ -0,0 +1,37 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.payload.OrderFilter;
+import com.snuggy.backend.payload.PickupDTO;
+import com.snuggy.backend.util.OrderCursor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Pages order ids newest first by {@code (created_at, id)}, starting strictly after the cursor
+     * when one is given.
+     */
+    List<Integer> findPageIds(OrderFilter filter, OrderCursor after, int limit);
+
+    /**
+     * Moves every listed order that is currently in one of {@code allowedSources} to {@code status}
+     * in a single statement.
+     *
+     * @return the FCM token of the student behind each order that moved, keyed by order id; the
+     *         token is null where the student has none
+     */
+    Map<Integer, String> transitionAll(Collection<Integer> ids, OrderStatus status, Collection<OrderStatus> allowedSources);
+
+    Map<Integer, OrderStatus> findStatuses(Collection<Integer> ids);
+
+    /**
+     * Fetches the student's newest order in one of {@code statuses} together with its items, in a
+     * single statement.
+     */
+    Optional<PickupDTO> findLatestPickup(Integer studentId, Collection<OrderStatus> statuses);
+}
@@ -0,0 +1,115 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.payload.OrderFilter;
+import com.snuggy.backend.payload.OrderItemDTO;
+import com.snuggy.backend.payload.PickupDTO;
+import com.snuggy.backend.util.OrderCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String TRANSITION_ALL_SQL =
+            "UPDATE orders o SET status = ?, updated_at = CURRENT_TIMESTAMP FROM users u " +
+            "WHERE u.id = o.student_id AND o.id = ANY(?) AND o.status = ANY(?) " +
+            "RETURNING o.id, u.fcm_token";
+
+    private static final String LATEST_PICKUP_SQL =
+            "SELECT o.id, o.status, o.total_amount, o.created_at, oi.id, oi.menu_id, m.name, oi.quantity, oi.price " +
+            "FROM (SELECT id, status, total_amount, created_at FROM orders " +
+            "      WHERE student_id = ? AND status = ANY(?) ORDER BY created_at DESC, id DESC LIMIT 1) o " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN menu m ON m.id = oi.menu_id " +
+            "ORDER BY oi.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> findPageIds(OrderFilter filter, OrderCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM orders WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(filter.getStatus().name());
+        }
+        if (filter.getStudentId() != null) {
+            sql.append(" AND student_id = ?");
+            args.add(filter.getStudentId());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(filter.getTo());
+        }
+        if (after != null) {
+            sql.append(" AND (created_at, id) < (?, ?)");
+            args.add(after.getCreatedAt());
+            args.add(after.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), Integer.class, args.toArray());
+    }
+
+    @Override
+    public Map<Integer, String> transitionAll(Collection<Integer> ids, OrderStatus status, Collection<OrderStatus> allowedSources) {
+        Map<Integer, String> tokens = new HashMap<>();
+        if (ids.isEmpty()) {
+            return tokens;
+        }
+        jdbcTemplate.query(TRANSITION_ALL_SQL, ps -> {
+            ps.setString(1, status.name());
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", ids.toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar",
+                    allowedSources.stream().map(OrderStatus::name).toArray()));
+        }, rs -> {
+            tokens.put(rs.getInt(1), rs.getString(2));
+        });
+        return tokens;
+    }
+
+    @Override
+    public Map<Integer, OrderStatus> findStatuses(Collection<Integer> ids) {
+        Map<Integer, OrderStatus> statuses = new HashMap<>();
+        if (ids.isEmpty()) {
+            return statuses;
+        }
+        jdbcTemplate.query("SELECT id, status FROM orders WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids.toArray())),
+                rs -> { statuses.put(rs.getInt(1), OrderStatus.valueOf(rs.getString(2))); });
+        return statuses;
+    }
+
+    @Override
+    public Optional<PickupDTO> findLatestPickup(Integer studentId, Collection<OrderStatus> statuses) {
+        List<PickupDTO> pickups = new ArrayList<>(1);
+        jdbcTemplate.query(LATEST_PICKUP_SQL, ps -> {
+            ps.setInt(1, studentId);
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar",
+                    statuses.stream().map(OrderStatus::name).toArray()));
+        }, rs -> {
+            if (pickups.isEmpty()) {
+                pickups.add(new PickupDTO(rs.getInt(1), OrderStatus.valueOf(rs.getString(2)),
+                        rs.getBigDecimal(3), rs.getTimestamp(4), new ArrayList<>()));
+            }
+            long itemId = rs.getLong(5);
+            if (!rs.wasNull()) {
+                pickups.get(0).getOrderItems().add(new OrderItemDTO(rs.getInt(1), itemId, rs.getInt(6),
+                        rs.getString(7), rs.getInt(8), rs.getBigDecimal(9)));
+            }
+        });
+        return pickups.stream().findFirst();
+    }
+}
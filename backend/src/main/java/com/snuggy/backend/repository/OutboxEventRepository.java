@@ -0,0 +1,7 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+}
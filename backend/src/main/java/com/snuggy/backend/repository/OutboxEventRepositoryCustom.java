@@ -0,0 +1,21 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.OutboxEvent;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Locks up to {@code limit} unpublished events, oldest first, skipping rows another relay holds.
+     * Events of an order whose earliest unpublished event is not among them are left out, so no
+     * order's events can overtake each other.
+     */
+    List<OutboxEvent> claimBatch(int limit);
+
+    void markPublished(Collection<Long> ids);
+
+    int deletePublishedBefore(Timestamp cutoff);
+}
@@ -0,0 +1,64 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.OutboxEvent;
+import com.snuggy.backend.entity.OutboxEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String CLAIM_SQL =
+            "SELECT id, aggregate_id, event_type, payload FROM outbox_events " +
+            "WHERE published_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String EARLIEST_UNPUBLISHED_SQL =
+            "SELECT aggregate_id, MIN(id) FROM outbox_events " +
+            "WHERE published_at IS NULL AND aggregate_id = ANY(?) GROUP BY aggregate_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<OutboxEvent> claimBatch(int limit) {
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            OutboxEvent event = new OutboxEvent(rs.getInt("aggregate_id"),
+                    OutboxEventType.valueOf(rs.getString("event_type")), rs.getString("payload"));
+            event.setId(rs.getLong("id"));
+            return event;
+        }, limit);
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        Map<Integer, Long> firstClaimed = new HashMap<>();
+        events.forEach(event -> firstClaimed.putIfAbsent(event.getAggregateId(), event.getId()));
+        Map<Integer, Long> earliest = new HashMap<>();
+        jdbcTemplate.query(EARLIEST_UNPUBLISHED_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", firstClaimed.keySet().toArray())),
+                rs -> { earliest.put(rs.getInt(1), rs.getLong(2)); });
+        return events.stream()
+                .filter(event -> firstClaimed.get(event.getAggregateId()).equals(earliest.get(event.getAggregateId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void markPublished(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE outbox_events SET published_at = CURRENT_TIMESTAMP WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    @Override
+    public int deletePublishedBefore(Timestamp cutoff) {
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE published_at < ?", cutoff);
+    }
+}
@@ -2,9 +2,17 @@ package com.snuggy.backend.repository;
 
 import com.snuggy.backend.entity.RfidMapping;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface RfidMappingRepository extends JpaRepository<RfidMapping, String> {
+public interface RfidMappingRepository extends JpaRepository<RfidMapping, String>, RfidMappingRepositoryCustom {
     Optional<RfidMapping> findByRfidUid(String rfidUid);
+
+    List<RfidMapping> findByStudentIdIn(Collection<Integer> studentIds);
+
+    @Query("SELECT m.rfidUid, m.studentId FROM RfidMapping m")
+    List<Object[]> findAllUidsAndStudentIds();
 }
@@ -0,0 +1,15 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.RfidMapping;
+
+import java.util.List;
+
+public interface RfidMappingRepositoryCustom {
+
+    /**
+     * Inserts the mappings in one JDBC batch, skipping any whose card or student is already mapped.
+     *
+     * @return per mapping, 1 if it was inserted and 0 if it conflicted
+     */
+    int[] insertIgnoringConflicts(List<RfidMapping> mappings);
+}
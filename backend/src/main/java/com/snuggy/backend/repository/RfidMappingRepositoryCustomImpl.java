@@ -0,0 +1,28 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.RfidMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class RfidMappingRepositoryCustomImpl implements RfidMappingRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertIgnoringConflicts(List<RfidMapping> mappings) {
+        if (mappings.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO rfid_mappings (rfid_uid, student_id, created_at) VALUES (?, ?, CURRENT_TIMESTAMP) " +
+                "ON CONFLICT DO NOTHING",
+                mappings, mappings.size(), (ps, mapping) -> {
+                    ps.setString(1, mapping.getRfidUid());
+                    ps.setInt(2, mapping.getStudentId());
+                });
+        return counts[0];
+    }
+}
@@ -3,8 +3,12 @@ package com.snuggy.backend.repository;
 import com.snuggy.backend.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Integer> {
+public interface TagRepository extends JpaRepository<Tag, Integer>, TagRepositoryCustom {
     Optional<Tag> findByName(String name);
+
+    List<Tag> findByNameIn(Collection<String> names);
 }
@@ -0,0 +1,8 @@
+package com.snuggy.backend.repository;
+
+import java.util.Collection;
+
+public interface TagRepositoryCustom {
+
+    void insertIgnoringDuplicates(Collection<String> names);
+}
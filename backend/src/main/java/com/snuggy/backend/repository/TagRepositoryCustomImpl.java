@@ -0,0 +1,24 @@
+package com.snuggy.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TagRepositoryCustomImpl implements TagRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertIgnoringDuplicates(Collection<String> names) {
+        List<String> rows = new ArrayList<>(names);
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (name) VALUES (?) ON CONFLICT (name) DO NOTHING",
+                rows, rows.size(), (ps, name) -> ps.setString(1, name));
+    }
+}
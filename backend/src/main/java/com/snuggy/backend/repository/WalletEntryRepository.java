@@ -0,0 +1,7 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.WalletEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WalletEntryRepository extends JpaRepository<WalletEntry, Long>, WalletEntryRepositoryCustom {
+}
@@ -0,0 +1,10 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.WalletEntry;
+
+import java.util.List;
+
+public interface WalletEntryRepositoryCustom {
+
+    void appendAll(List<WalletEntry> entries);
+}
@@ -0,0 +1,37 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.WalletEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class WalletEntryRepositoryCustomImpl implements WalletEntryRepositoryCustom {
+
+    private static final String APPEND_SQL =
+            "INSERT INTO wallet_entries (student_id, amount, entry_type, order_id, compacted, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(List<WalletEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getStudentId());
+            ps.setBigDecimal(2, entry.getAmount());
+            ps.setString(3, entry.getEntryType().name());
+            if (entry.getOrderId() != null) {
+                ps.setInt(4, entry.getOrderId());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setBoolean(5, entry.isCompacted());
+            ps.setTimestamp(6, entry.getCreatedAt());
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Order;
+import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.payload.ActiveOrderView;
+import com.snuggy.backend.payload.KitchenQueueDelta;
+import com.snuggy.backend.payload.KitchenQueueSnapshot;
+import com.snuggy.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The kitchen queue: every PAID or AWAITING_CONFIRMATION order, in arrival order, kept in memory and
+ * updated as orders are placed and change status. Each change is published as a numbered
+ * {@link KitchenQueueDelta}; a display loads {@link #snapshot()} once and then applies the deltas
+ * whose sequence is higher than the snapshot's.
+ */
+@Component
+public class ActiveOrderIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveOrderIndex.class);
+
+    public static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.of(OrderStatus.PAID, OrderStatus.AWAITING_CONFIRMATION);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ScanSessionCache scanSessionCache;
+
+    // Guarded by this; deltas are published while holding the lock so they leave in sequence order.
+    private final Map<Integer, ActiveOrderView> orders = new LinkedHashMap<>();
+    private long sequence;
+
+    @PostConstruct
+    public synchronized void load() {
+        for (Order order : orderRepository.findAllByStatusInWithUserAndItems(ACTIVE_STATUSES)) {
+            orders.put(order.getId(), ActiveOrderView.from(order, item -> item.getMenuItem().getName()));
+        }
+        logger.info("Kitchen queue loaded {} active orders", orders.size());
+    }
+
+    public synchronized KitchenQueueSnapshot snapshot() {
+        return new KitchenQueueSnapshot(sequence, new ArrayList<>(orders.values()));
+    }
+
+    /**
+     * Reconciles the queue with the current state of an order and publishes the resulting delta,
+     * if any. Must be called after the change has committed.
+     */
+    public synchronized void apply(ActiveOrderView order) {
+        scanSessionCache.invalidateStudent(order.getStudentId());
+        boolean active = ACTIVE_STATUSES.contains(order.getStatus());
+        ActiveOrderView existing = orders.get(order.getId());
+        if (existing == null) {
+            if (active) {
+                orders.put(order.getId(), order);
+                publish(KitchenQueueDelta.Type.ADDED, order.getId(), order.getStatus(), order);
+            }
+        } else if (!active) {
+            orders.remove(order.getId());
+            publish(KitchenQueueDelta.Type.REMOVED, order.getId(), order.getStatus(), null);
+        } else if (existing.getStatus() != order.getStatus()) {
+            orders.put(order.getId(), existing.withStatus(order.getStatus()));
+            publish(KitchenQueueDelta.Type.STATUS_CHANGED, order.getId(), order.getStatus(), null);
+        }
+    }
+
+    /**
+     * Applies a status change known only by order id. The order is loaded only when it enters the
+     * queue without having been seen before, e.g. when a pending order is paid.
+     */
+    public synchronized void statusChanged(Integer orderId, OrderStatus status) {
+        ActiveOrderView existing = orders.get(orderId);
+        if (existing != null) {
+            apply(existing.withStatus(status));
+        } else if (ACTIVE_STATUSES.contains(status)) {
+            orderRepository.findByIdWithUserAndItems(orderId)
+                    .map(order -> ActiveOrderView.from(order, item -> item.getMenuItem().getName()))
+                    .ifPresent(order -> apply(order.withStatus(status)));
+        }
+    }
+
+    private void publish(KitchenQueueDelta.Type type, Integer orderId, OrderStatus status, ActiveOrderView order) {
+        notificationService.sendKitchenQueueDelta(new KitchenQueueDelta(++sequence, type, orderId, status, order));
+    }
+}
@@ -1,34 +1,112 @@
 package com.snuggy.backend.service;
 
-import com.snuggy.backend.entity.Balance;
+import com.snuggy.backend.entity.WalletEntry;
+import com.snuggy.backend.entity.WalletEntryType;
+import com.snuggy.backend.exception.ResourceNotFoundException;
 import com.snuggy.backend.repository.BalanceRepository;
+import com.snuggy.backend.repository.WalletEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Wallet backed by the append-only {@code wallet_entries} ledger. {@code balances} holds a snapshot
+ * that {@link #compact()} folds credits into; the current balance is the snapshot plus the
+ * uncompacted tail. Credits are plain appends and never contend. A debit is one guarded update of
+ * the snapshot, so concurrent debits of one wallet cannot overdraw it, and its ledger entry is
+ * appended already folded.
+ */
 @Service
 public class BalanceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BalanceService.class);
+
     @Autowired
     private BalanceRepository balanceRepository;
 
-    public Optional<Balance> getBalance(Integer studentId) {
-        return balanceRepository.findById(studentId);
-    }
+    @Autowired
+    private WalletEntryRepository walletEntryRepository;
 
-    public void updateBalance(Integer studentId, BigDecimal newAmount) {
-        balanceRepository.findById(studentId).ifPresent(balance -> {
-            balance.setAmount(newAmount);
-            balanceRepository.save(balance);
-        });
+    @Value("${app.wallet.compaction-batch-size:5000}")
+    private int compactionBatchSize;
+
+    /**
+     * The guarded update holds the snapshot row's lock until the surrounding transaction ends, so
+     * callers should debit as the last step before committing.
+     */
+    @Transactional
+    public boolean debit(Integer studentId, BigDecimal amount, WalletEntryType entryType, Integer orderId) {
+        if (balanceRepository.debit(studentId, amount) == 0) {
+            if (!balanceRepository.existsById(studentId)) {
+                throw new ResourceNotFoundException("Balance not found for user with id: " + studentId);
+            }
+            // Refused either for lack of funds or because a compaction of this row committed while
+            // the update waited for it; a second attempt reads the compacted tail.
+            if (balanceRepository.debit(studentId, amount) == 0) {
+                return false;
+            }
+        }
+        WalletEntry entry = new WalletEntry(studentId, amount.negate(), entryType, orderId);
+        entry.setCompacted(true);
+        append(entry);
+        return true;
     }
 
+    @Transactional
     public void addFunds(Integer studentId, BigDecimal amountToAdd) {
-        Balance balance = balanceRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Balance not found for user: " + studentId));
-        balance.setAmount(balance.getAmount().add(amountToAdd));
-        balanceRepository.save(balance);
+        credit(studentId, amountToAdd, WalletEntryType.TOP_UP, null);
+    }
+
+    @Transactional
+    public void credit(Integer studentId, BigDecimal amount, WalletEntryType entryType, Integer orderId) {
+        if (!balanceRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Balance not found for user with id: " + studentId);
+        }
+        append(new WalletEntry(studentId, amount, entryType, orderId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.wallet.compaction-interval-ms:60000}")
+    @Transactional
+    public void compact() {
+        int folded = balanceRepository.compact(compactionBatchSize);
+        if (folded > 0) {
+            logger.debug("Folded wallet entries into {} balance snapshots", folded);
+        }
+    }
+
+    private void append(WalletEntry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            walletEntryRepository.appendAll(List.of(entry));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<WalletEntry> pending = (List<WalletEntry>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<WalletEntry> entries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    walletEntryRepository.appendAll(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(BalanceService.this);
+                }
+            });
+            pending = entries;
+        }
+        pending.add(entry);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.util.ExportFormat;
+import com.snuggy.backend.util.RowWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams accounting exports straight from a forward-only JDBC cursor to the response, so heap use
+ * does not depend on the number of rows. The PostgreSQL driver only honours the fetch size inside
+ * a transaction, hence the read-only transaction around each export.
+ */
+@Service
+public class ExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final List<String> ORDER_COLUMNS = List.of(
+            "orderId", "studentId", "studentName", "status", "totalAmount", "createdAt",
+            "menuItemId", "menuItemName", "quantity", "price");
+
+    private static final String ORDER_SQL =
+            "SELECT o.id, o.student_id, u.name AS student_name, o.status, o.total_amount, o.created_at, " +
+            "oi.menu_id, m.name AS menu_name, oi.quantity, oi.price " +
+            "FROM orders o JOIN users u ON u.id = o.student_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id LEFT JOIN menu m ON m.id = oi.menu_id";
+
+    private static final String ORDER_SORT = " ORDER BY o.created_at, o.id, oi.id";
+
+    private static final List<String> TRANSACTION_COLUMNS = List.of(
+            "studentId", "orderId", "studentName", "studentEmail", "amount", "createdAt");
+
+    private static final String TRANSACTION_SQL =
+            "SELECT t.student_id, t.order_id, u.name, u.email, t.amount, t.created_at " +
+            "FROM transactions t JOIN users u ON u.id = t.student_id";
+
+    private static final String TRANSACTION_SORT = " ORDER BY t.created_at, t.order_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes one row per order line item, oldest first, for orders created in {@code [from, to)}.
+     */
+    public void exportOrders(ExportFormat format, Timestamp from, Timestamp to, OutputStream out) throws IOException {
+        export(format, ORDER_COLUMNS, ORDER_SQL, "o.created_at", ORDER_SORT, from, to, out, (rs, writer) -> writer.write(
+                rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getBigDecimal(5), rs.getTimestamp(6),
+                rs.getObject(7, Integer.class), rs.getString(8), rs.getObject(9, Integer.class), rs.getBigDecimal(10)));
+    }
+
+    /**
+     * Writes every transaction created in {@code [from, to)}, oldest first.
+     */
+    public void exportTransactions(ExportFormat format, Timestamp from, Timestamp to, OutputStream out) throws IOException {
+        export(format, TRANSACTION_COLUMNS, TRANSACTION_SQL, "t.created_at", TRANSACTION_SORT, from, to, out, (rs, writer) -> writer.write(
+                rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getBigDecimal(5), rs.getTimestamp(6)));
+    }
+
+    private void export(ExportFormat format, List<String> columns, String select, String createdAtColumn, String sort,
+                        Timestamp from, Timestamp to, OutputStream out, RowMapping mapping) throws IOException {
+        StringBuilder sql = new StringBuilder(select).append(" WHERE TRUE");
+        List<Timestamp> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND ").append(createdAtColumn).append(" >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND ").append(createdAtColumn).append(" < ?");
+            args.add(to);
+        }
+        sql.append(sort);
+
+        long[] rows = {0};
+        try (RowWriter writer = RowWriter.create(format, out, columns, objectMapper.getFactory())) {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setTimestamp(i + 1, args.get(i));
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    mapping.write(rs, writer);
+                    if (++rows[0] % FETCH_SIZE == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapping {
+        void write(ResultSet rs, RowWriter writer) throws IOException, SQLException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.snuggy.backend.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import com.snuggy.backend.payload.PushMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class FcmPushBackend implements PushBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(FcmPushBackend.class);
+
+    private final FirebaseMessaging fcm;
+
+    public FcmPushBackend(FirebaseMessaging fcm) {
+        this.fcm = fcm;
+    }
+
+    @Override
+    public List<PushOutcome> sendEach(List<PushMessage> messages) {
+        List<Message> fcmMessages = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            fcmMessages.add(Message.builder()
+                    .setToken(message.getToken())
+                    .setNotification(Notification.builder()
+                            .setTitle(message.getTitle())
+                            .setBody(message.getBody())
+                            .build())
+                    .putAllData(message.getData())
+                    .build());
+        }
+
+        BatchResponse response;
+        try {
+            response = fcm.sendEach(fcmMessages);
+        } catch (FirebaseMessagingException e) {
+            logger.warn("FCM batch of {} messages failed", messages.size(), e);
+            return Collections.nCopies(messages.size(), outcomeOf(e));
+        }
+
+        List<PushOutcome> outcomes = new ArrayList<>(messages.size());
+        for (SendResponse sendResponse : response.getResponses()) {
+            outcomes.add(sendResponse.isSuccessful() ? PushOutcome.SENT : outcomeOf(sendResponse.getException()));
+        }
+        return outcomes;
+    }
+
+    private static PushOutcome outcomeOf(FirebaseMessagingException e) {
+        MessagingErrorCode code = e.getMessagingErrorCode();
+        if (code == null) {
+            return PushOutcome.RETRYABLE;
+        }
+        switch (code) {
+            case UNREGISTERED:
+            case SENDER_ID_MISMATCH:
+                return PushOutcome.UNREGISTERED;
+            case UNAVAILABLE:
+            case INTERNAL:
+            case QUOTA_EXCEEDED:
+                return PushOutcome.RETRYABLE;
+            default:
+                return PushOutcome.FAILED;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.IdempotencyRecord;
+import com.snuggy.backend.exception.BadRequestException;
+import com.snuggy.backend.exception.UnprocessableEntityException;
+import com.snuggy.backend.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action at most once per key and replays its JSON response for {@code app.idempotency.ttl-seconds}.
+ * The key is written in the same transaction as the action, so a committed action always has its
+ * replay record. Each key also stores a fingerprint of the request it was first used with; reusing
+ * it with a different request is rejected with 422. Recent responses are cached in memory, up to
+ * {@code app.idempotency.cache-max-entries}, in front of the {@code idempotency_keys} table;
+ * concurrent requests with the same key wait for the execution already in flight.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.idempotency.cache-max-entries:10000}")
+    private int maxCachedResponses;
+
+    // Least recently used first; guarded by itself.
+    private final Map<String, IdempotencyRecord> responses = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+            return size() > maxCachedResponses;
+        }
+    };
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public Result execute(String key, Object request, Supplier<?> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        IdempotencyRecord stored = lookup(key);
+        if (stored != null) {
+            return replay(stored, fingerprint);
+        }
+
+        CompletableFuture<IdempotencyRecord> execution = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> existing = inFlight.putIfAbsent(key, execution);
+        if (existing != null) {
+            return replay(await(existing), fingerprint);
+        }
+
+        try {
+            stored = lookup(key);
+            if (stored != null) {
+                execution.complete(stored);
+                return replay(stored, fingerprint);
+            }
+            IdempotencyRecord record = new TransactionTemplate(transactionManager).execute(status -> {
+                long now = System.currentTimeMillis();
+                IdempotencyRecord created = new IdempotencyRecord(key, fingerprint, serialize(key, action.get()),
+                        new Timestamp(now), new Timestamp(now + ttlSeconds * 1000));
+                return idempotencyRecordRepository.save(created);
+            });
+            synchronized (responses) {
+                responses.put(key, record);
+            }
+            execution.complete(record);
+            return new Result(record.getResponseBody(), false);
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    @Transactional
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (responses) {
+            responses.values().removeIf(record -> record.getExpiresAt().getTime() <= now);
+        }
+        idempotencyRecordRepository.deleteExpired(new Timestamp(now));
+    }
+
+    private IdempotencyRecord lookup(String key) {
+        IdempotencyRecord record;
+        synchronized (responses) {
+            record = responses.get(key);
+        }
+        if (record == null) {
+            record = idempotencyRecordRepository.findById(key).orElse(null);
+            if (record == null) {
+                return null;
+            }
+            synchronized (responses) {
+                responses.put(key, record);
+            }
+        }
+        return record.getExpiresAt().getTime() > System.currentTimeMillis() ? record : null;
+    }
+
+    private Result replay(IdempotencyRecord record, String fingerprint) {
+        // Records written before fingerprints were stored have none and replay for any request.
+        if (record.getRequestFingerprint() != null && !record.getRequestFingerprint().equals(fingerprint)) {
+            throw new UnprocessableEntityException("Idempotency key was already used with a different request");
+        }
+        return new Result(record.getResponseBody(), true);
+    }
+
+    private String serialize(String key, Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for idempotency key " + key, e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request for fingerprinting", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public static class Result {
+        private final String body;
+        private final boolean replayed;
+
+        public Result(String body, boolean replayed) {
+            this.body = body;
+            this.replayed = replayed;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
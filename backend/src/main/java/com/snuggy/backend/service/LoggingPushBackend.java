@@ -0,0 +1,20 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.payload.PushMessage;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in used when Firebase is not configured: prints what would have been sent.
+ */
+public class LoggingPushBackend implements PushBackend {
+
+    @Override
+    public List<PushOutcome> sendEach(List<PushMessage> messages) {
+        for (PushMessage message : messages) {
+            System.out.println("Firebase disabled. Would have sent notification: " + message.getTitle() + " - " + message.getBody());
+        }
+        return Collections.nCopies(messages.size(), PushOutcome.SENT);
+    }
+}
@@ -0,0 +1,266 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.Tag;
+import com.snuggy.backend.exception.BadRequestException;
+import com.snuggy.backend.payload.BulkRowResult;
+import com.snuggy.backend.payload.MenuItemSummary;
+import com.snuggy.backend.payload.MenuRequest;
+import com.snuggy.backend.payload.StockAdjustmentRequest;
+import com.snuggy.backend.repository.MenuRepository;
+import com.snuggy.backend.repository.TagRepository;
+import com.snuggy.backend.util.BulkRow;
+import com.snuggy.backend.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies bulk menu imports and stock adjustments in a single transaction, in JDBC batches of
+ * {@link #CHUNK_SIZE} rows, reporting an outcome for every input row.
+ */
+@Service
+public class MenuImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private StockAlertAggregator stockAlertAggregator;
+
+    @Transactional
+    public List<BulkRowResult> importMenuItems(Iterator<BulkRow<MenuRequest>> rows) {
+        List<BulkRowResult> results = new ArrayList<>();
+        List<Menu> created = new ArrayList<>();
+        List<BulkRow<MenuRequest>> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            BulkRow<MenuRequest> row = rows.next();
+            String error = row.isValid() ? validate(row.getValue()) : row.getError();
+            if (error != null) {
+                results.add(new BulkRowResult(row.getRowNumber(), null, "INVALID", error));
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, results, created);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, results, created);
+
+        if (!created.isEmpty()) {
+            TransactionHooks.afterCommit(() -> created.forEach(menu -> {
+                if (stockLedger.isEnabled()) {
+                    stockLedger.track(menu.getId(), menu.getStock());
+                }
+                menuSearchIndex.index(menu);
+                stockAlertAggregator.setThreshold(menu.getId(), menu.getLowStockThreshold());
+                stockAlertAggregator.record(menu.getId(), menu.getName(), menu.getStock());
+            }));
+            menuService.invalidateMenuSnapshot();
+        }
+        results.sort(Comparator.comparingInt(BulkRowResult::getRow));
+        return results;
+    }
+
+    @Transactional
+    public List<BulkRowResult> adjustStock(Iterator<BulkRow<StockAdjustmentRequest>> rows) {
+        List<BulkRowResult> results = new ArrayList<>();
+        Set<Integer> adjusted = new HashSet<>();
+        List<BulkRow<StockAdjustmentRequest>> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            BulkRow<StockAdjustmentRequest> row = rows.next();
+            String error = row.isValid() ? validate(row.getValue()) : row.getError();
+            if (error != null) {
+                results.add(new BulkRowResult(row.getRowNumber(), null, "INVALID", error));
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                adjustChunk(chunk, results, adjusted);
+                chunk.clear();
+            }
+        }
+        adjustChunk(chunk, results, adjusted);
+
+        if (!adjusted.isEmpty()) {
+            menuService.invalidateMenuStock();
+            for (MenuItemSummary item : menuRepository.findAllByIdIn(adjusted)) {
+                menuService.recordStockLevel(item.getId(), item.getName(), item.getStock());
+            }
+        }
+        results.sort(Comparator.comparingInt(BulkRowResult::getRow));
+        return results;
+    }
+
+    private void importChunk(List<BulkRow<MenuRequest>> chunk, List<BulkRowResult> results, List<Menu> created) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> tagNames = chunk.stream()
+                .filter(row -> row.getValue().getTags() != null)
+                .flatMap(row -> row.getValue().getTags().stream())
+                .collect(Collectors.toSet());
+        Map<String, Tag> tags = resolveTags(tagNames);
+
+        List<MenuRequest> items = chunk.stream().map(BulkRow::getValue).collect(Collectors.toList());
+        int[] counts = menuRepository.insertMenuItems(items);
+        Set<String> insertedNames = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                insertedNames.add(items.get(i).getName());
+            }
+        }
+        Map<String, Integer> ids = menuRepository.findIdsByNames(insertedNames);
+
+        List<Map.Entry<Integer, Integer>> menuTagIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            BulkRow<MenuRequest> row = chunk.get(i);
+            MenuRequest item = row.getValue();
+            if (counts[i] == 0) {
+                results.add(new BulkRowResult(row.getRowNumber(), null, "DUPLICATE",
+                        "Menu item already exists: " + item.getName()));
+                continue;
+            }
+            Integer id = ids.get(item.getName());
+            Menu menu = new Menu();
+            menu.setId(id);
+            menu.setName(item.getName());
+            menu.setPrice(item.getPrice());
+            menu.setStock(item.getStock());
+            menu.setImageUrl(item.getImageUrl());
+            menu.setLowStockThreshold(item.getLowStockThreshold());
+            Set<Tag> menuTags = new HashSet<>();
+            if (item.getTags() != null) {
+                for (String tagName : item.getTags()) {
+                    Tag tag = tags.get(tagName);
+                    menuTags.add(tag);
+                    menuTagIds.add(new AbstractMap.SimpleImmutableEntry<>(id, tag.getId()));
+                }
+            }
+            menu.setTags(menuTags);
+            created.add(menu);
+            results.add(new BulkRowResult(row.getRowNumber(), id, "CREATED", null));
+        }
+        menuRepository.insertMenuTags(menuTagIds);
+    }
+
+    private void adjustChunk(List<BulkRow<StockAdjustmentRequest>> chunk, List<BulkRowResult> results,
+                             Set<Integer> adjusted) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Lock rows in id order so concurrent bulk adjustments and order reservations cannot deadlock.
+        chunk.sort(Comparator.comparing(row -> row.getValue().getMenuId()));
+        int[] counts;
+        if (stockLedger.isEnabled()) {
+            counts = new int[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                StockAdjustmentRequest adjustment = chunk.get(i).getValue();
+                try {
+                    counts[i] = stockLedger.adjust(adjustment.getMenuId(), adjustment.getQuantityChange()).isPresent() ? 1 : 0;
+                } catch (BadRequestException e) {
+                    counts[i] = 0;
+                }
+            }
+        } else {
+            counts = menuRepository.adjustStock(chunk.stream().map(BulkRow::getValue).collect(Collectors.toList()));
+        }
+
+        // A row that changed nothing either names a missing item or would have taken stock below zero.
+        Set<Integer> unchanged = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                unchanged.add(chunk.get(i).getValue().getMenuId());
+            }
+        }
+        Set<Integer> existing = unchanged.isEmpty() ? Set.of() : menuRepository.findAllByIdIn(unchanged).stream()
+                .map(MenuItemSummary::getId)
+                .collect(Collectors.toSet());
+
+        for (int i = 0; i < counts.length; i++) {
+            BulkRow<StockAdjustmentRequest> row = chunk.get(i);
+            Integer menuId = row.getValue().getMenuId();
+            if (counts[i] == 0 && existing.contains(menuId)) {
+                results.add(new BulkRowResult(row.getRowNumber(), menuId, "REJECTED",
+                        "Stock for menu item " + menuId + " cannot go below zero"));
+            } else if (counts[i] == 0) {
+                results.add(new BulkRowResult(row.getRowNumber(), menuId, "NOT_FOUND",
+                        "Menu item not found with id: " + menuId));
+            } else {
+                adjusted.add(menuId);
+                results.add(new BulkRowResult(row.getRowNumber(), menuId, "UPDATED", null));
+            }
+        }
+    }
+
+    private Map<String, Tag> resolveTags(Set<String> names) {
+        Map<String, Tag> tags = new HashMap<>();
+        if (names.isEmpty()) {
+            return tags;
+        }
+        tagRepository.findByNameIn(names).forEach(tag -> tags.put(tag.getName(), tag));
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(tags.keySet());
+        if (!missing.isEmpty()) {
+            tagRepository.insertIgnoringDuplicates(missing);
+            tagRepository.findByNameIn(missing).forEach(tag -> tags.put(tag.getName(), tag));
+        }
+        return tags;
+    }
+
+    private String validate(MenuRequest item) {
+        if (item == null || item.getName() == null || item.getName().isBlank()) {
+            return "name is required";
+        }
+        if (item.getPrice() == null || item.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "price must be a non-negative number";
+        }
+        if (item.getStock() == null || item.getStock() < 0) {
+            return "stock must be a non-negative integer";
+        }
+        if (item.getLowStockThreshold() != null && item.getLowStockThreshold() < 0) {
+            return "lowStockThreshold must be a non-negative integer";
+        }
+        if (item.getTags() != null && item.getTags().stream().anyMatch(tag -> tag == null || tag.isBlank())) {
+            return "tags must not be blank";
+        }
+        return null;
+    }
+
+    private String validate(StockAdjustmentRequest adjustment) {
+        if (adjustment == null || adjustment.getMenuId() == null) {
+            return "menuId is required";
+        }
+        if (adjustment.getQuantityChange() == null) {
+            return "quantityChange is required";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.Tag;
+import com.snuggy.backend.repository.MenuRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram index over menu item names and tag names. Words are padded the way pg_trgm pads them,
+ * so a short query still matches word prefixes; otherwise items are ranked by the share of the
+ * query's trigrams they contain, which tolerates typos.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchIndex.class);
+    private static final double MIN_SIMILARITY = 0.5;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        menuRepository.findAllWithTags().forEach(this::index);
+        logger.info("Menu search index built for {} items", documents.size());
+    }
+
+    public synchronized void index(Menu menu) {
+        Document previous = documents.remove(menu.getId());
+        if (previous != null) {
+            for (String trigram : previous.trigrams) {
+                Set<Integer> menuIds = postings.get(trigram);
+                if (menuIds != null) {
+                    menuIds.remove(menu.getId());
+                }
+            }
+        }
+        List<String> tagNames = menu.getTags() == null ? List.of()
+                : menu.getTags().stream().map(Tag::getName).collect(Collectors.toList());
+        Document document = new Document(normalize(menu.getName()), tagNames.stream().map(MenuSearchIndex::normalize).collect(Collectors.toList()));
+        document.trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(menu.getId()));
+        documents.put(menu.getId(), document);
+    }
+
+    public List<Integer> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Set<String> queryTrigrams = trigrams(normalized);
+
+        Map<Integer, Integer> sharedCounts = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (Integer menuId : postings.getOrDefault(trigram, Set.of())) {
+                sharedCounts.merge(menuId, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> scored = new ArrayList<>();
+        sharedCounts.forEach((menuId, shared) -> {
+            Document document = documents.get(menuId);
+            if (document == null) {
+                return;
+            }
+            double similarity = (double) shared / queryTrigrams.size();
+            double boost = document.boost(normalized);
+            if (boost > 0 || similarity >= MIN_SIMILARITY) {
+                scored.add(Map.entry(menuId, similarity + boost));
+            }
+        });
+
+        return scored.stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static final class Document {
+        private final String name;
+        private final List<String> tags;
+        private final Set<String> trigrams;
+
+        private Document(String name, List<String> tags) {
+            this.name = name;
+            this.tags = tags;
+            this.trigrams = trigrams(name + " " + String.join(" ", tags));
+        }
+
+        private double boost(String query) {
+            if (name.equals(query)) {
+                return 3.0;
+            }
+            if (name.startsWith(query)) {
+                return 2.0;
+            }
+            for (String word : name.split(" ")) {
+                if (word.startsWith(query)) {
+                    return 1.5;
+                }
+            }
+            for (String tag : tags) {
+                if (tag.startsWith(query)) {
+                    return 1.0;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.snuggy.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.snuggy.backend.entity.Menu;
 import com.snuggy.backend.entity.Tag;
+import com.snuggy.backend.payload.MenuItemSummary;
 import com.snuggy.backend.payload.MenuRequest;
 import com.snuggy.backend.repository.MenuRepository;
 import com.snuggy.backend.repository.TagRepository;
+import com.snuggy.backend.util.TransactionHooks;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,22 +32,81 @@ public class MenuService {
     private MenuRepository menuRepository;
 
     @Autowired
-    private NotificationService notificationService;
+    private StockAlertAggregator stockAlertAggregator;
 
     @Autowired
     private TagRepository tagRepository;
 
-    public List<Menu> getAllMenuItems(Set<String> tags) {
-        if (tags == null || tags.isEmpty()) {
-            return menuRepository.findAllWithTags();
+    @Autowired
+    private StockLedger stockLedger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    // Stock-only changes refresh the cached menu at most this often; catalogue edits rebuild it at once.
+    @Value("${app.menu.stock-refresh-ms:2000}")
+    private long stockRefreshMs;
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final String snapshotEpoch = Long.toString(System.currentTimeMillis(), 36);
+    private volatile MenuSnapshot menuSnapshot;
+    private volatile boolean menuSnapshotStale = true;
+    private volatile boolean menuStockStale;
+    private volatile long menuSnapshotBuiltAt;
+
+    public MenuSnapshot getMenuSnapshot() {
+        MenuSnapshot current = menuSnapshot;
+        if (current != null && !isSnapshotDue()) {
+            return current;
+        }
+        if (current == null) {
+            snapshotLock.lock();
+        } else if (!snapshotLock.tryLock()) {
+            return current;
+        }
+        try {
+            if (menuSnapshot == null || isSnapshotDue()) {
+                menuSnapshotStale = false;
+                menuStockStale = false;
+                menuSnapshotBuiltAt = System.currentTimeMillis();
+                menuSnapshot = buildMenuSnapshot();
+            }
+            return menuSnapshot;
+        } catch (RuntimeException e) {
+            menuSnapshotStale = true;
+            throw e;
+        } finally {
+            snapshotLock.unlock();
         }
-        return menuRepository.findDistinctByTagsNameInWithTags(tags);
+    }
+
+    public List<Menu> searchMenuItems(String query, int limit) {
+        MenuSnapshot snapshot = getMenuSnapshot();
+        return menuSearchIndex.search(query, limit).stream()
+                .map(snapshot::getItem)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
     }
 
     public Optional<Menu> getMenuItem(Integer id) {
         return menuRepository.findByIdWithTags(id);
     }
 
+    public List<MenuItemSummary> getMenuItemSummaries(Collection<Integer> ids) {
+        return menuRepository.findAllByIdIn(ids);
+    }
+
+    public Menu getMenuReference(Integer id) {
+        return menuRepository.getReferenceById(id);
+    }
+
     @Transactional
     public Menu addMenuItem(MenuRequest menuRequest) {
         Menu menu = new Menu();
@@ -44,6 +114,7 @@ public class MenuService {
         menu.setPrice(menuRequest.getPrice());
         menu.setStock(menuRequest.getStock());
         menu.setImageUrl(menuRequest.getImageUrl());
+        menu.setLowStockThreshold(menuRequest.getLowStockThreshold());
 
         if (menuRequest.getTags() != null && !menuRequest.getTags().isEmpty()) {
             Set<Tag> tagSet = menuRequest.getTags().stream()
@@ -53,22 +124,115 @@ public class MenuService {
             menu.setTags(tagSet);
         }
 
-        return menuRepository.save(menu);
+        Menu savedMenu = menuRepository.save(menu);
+        if (stockLedger.isEnabled()) {
+            TransactionHooks.afterCommit(() -> stockLedger.track(savedMenu.getId(), savedMenu.getStock()));
+        }
+        TransactionHooks.afterCommit(() -> menuSearchIndex.index(savedMenu));
+        TransactionHooks.afterCommit(() -> stockAlertAggregator.setThreshold(savedMenu.getId(), savedMenu.getLowStockThreshold()));
+        recordStockLevel(savedMenu.getId(), savedMenu.getName(), savedMenu.getStock());
+        invalidateMenuSnapshot();
+        return savedMenu;
     }
 
     @Transactional
     public Optional<Menu> updateStock(Integer id, Integer quantityChange) {
+        invalidateMenuStock();
+        if (stockLedger.isEnabled()) {
+            return menuRepository.findByIdWithTags(id).map(menu -> {
+                entityManager.detach(menu);
+                stockLedger.adjust(id, quantityChange).ifPresent(menu::setStock);
+                recordStockLevel(id, menu.getName(), menu.getStock());
+                return menu;
+            });
+        }
         return menuRepository.findByIdWithTags(id).map(menu -> {
             int newStock = menu.getStock() + quantityChange;
             menu.setStock(newStock);
             Menu updatedMenu = menuRepository.save(menu);
 
+            recordStockLevel(id, updatedMenu.getName(), newStock);
 
-            if (newStock < 5) {
-                notificationService.sendLowStockWarning(updatedMenu.getName(), newStock);
-            }
-            
             return updatedMenu;
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the stock left after the reservation for each reserved item; an item missing from the
+     *         result did not have enough stock
+     */
+    @Transactional
+    public Map<Integer, Integer> reserveStock(Map<Integer, Integer> quantitiesByMenuId) {
+        invalidateMenuStock();
+        if (stockLedger.isEnabled()) {
+            return stockLedger.reserve(quantitiesByMenuId);
+        }
+        return menuRepository.reserveStock(new TreeMap<>(quantitiesByMenuId));
+    }
+
+    /**
+     * Returns the given quantities to stock, in the caller's transaction.
+     */
+    @Transactional
+    public void releaseStock(Map<Integer, Integer> quantitiesByMenuId) {
+        invalidateMenuStock();
+        if (stockLedger.isEnabled()) {
+            stockLedger.restock(quantitiesByMenuId);
+            return;
+        }
+        menuRepository.applyStockDeltas(new TreeMap<>(quantitiesByMenuId));
+    }
+
+    @Transactional
+    public Optional<Menu> updateLowStockThreshold(Integer id, Integer lowStockThreshold) {
+        invalidateMenuSnapshot();
+        return menuRepository.findByIdWithTags(id).map(menu -> {
+            menu.setLowStockThreshold(lowStockThreshold);
+            Menu updatedMenu = menuRepository.save(menu);
+            TransactionHooks.afterCommit(() -> stockAlertAggregator.setThreshold(id, lowStockThreshold));
+            recordStockLevel(id, updatedMenu.getName(), updatedMenu.getStock());
+            return updatedMenu;
+        });
+    }
+
+    /**
+     * Hands the item's new stock level to the {@link StockAlertAggregator} once the surrounding
+     * transaction commits; rolled back changes never raise an alert.
+     */
+    public void recordStockLevel(Integer menuId, String productName, int estimatedStock) {
+        TransactionHooks.afterCommit(() -> {
+            int stock = stockLedger.isEnabled() ? stockLedger.available(menuId).orElse(estimatedStock) : estimatedStock;
+            stockAlertAggregator.record(menuId, productName, stock);
+        });
+    }
+
+    /**
+     * Rebuilds the cached menu on the next read after commit. Used for catalogue edits.
+     */
+    void invalidateMenuSnapshot() {
+        TransactionHooks.afterCommit(() -> menuSnapshotStale = true);
+    }
+
+    /**
+     * Marks the cached stock figures as out of date after commit. Orders change stock constantly, so
+     * the snapshot picks these up at most once per {@code app.menu.stock-refresh-ms} instead of
+     * being rebuilt for every order.
+     */
+    void invalidateMenuStock() {
+        TransactionHooks.afterCommit(() -> menuStockStale = true);
+    }
+
+    private boolean isSnapshotDue() {
+        return menuSnapshotStale
+                || (menuStockStale && System.currentTimeMillis() - menuSnapshotBuiltAt >= stockRefreshMs);
+    }
+
+    private MenuSnapshot buildMenuSnapshot() {
+        List<Menu> menuItems = menuRepository.findAllWithTags();
+        if (stockLedger.isEnabled()) {
+            menuItems.forEach(menu -> stockLedger.available(menu.getId()).ifPresent(menu::setStock));
+        }
+        String eTag = "\"" + snapshotEpoch + "-" + snapshotVersion.incrementAndGet() + "\"";
+        return new MenuSnapshot(eTag, menuItems, objectMapper.writer());
+    }
+}
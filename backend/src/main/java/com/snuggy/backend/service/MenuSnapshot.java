@@ -0,0 +1,105 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.snuggy.backend.entity.Menu;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the menu at one version, holding the serialized JSON for the full menu and for
+ * every single-tag filter. Other tag filters are resolved through the snapshot's {@link MenuTagIndex},
+ * serialized on first use and memoized up to a bound.
+ */
+public final class MenuSnapshot {
+
+    private static final int MAX_CACHED_VARIANTS = 256;
+
+    private final String eTag;
+    private final List<Menu> items;
+    private final Map<Integer, Menu> itemsById;
+    private final MenuTagIndex tagIndex;
+    private final ObjectWriter writer;
+    private final byte[] json;
+    private final Map<String, byte[]> variants = new ConcurrentHashMap<>();
+
+    MenuSnapshot(String eTag, List<Menu> items, ObjectWriter writer) {
+        this.eTag = eTag;
+        this.items = List.copyOf(items);
+        this.itemsById = this.items.stream().collect(Collectors.toMap(Menu::getId, Function.identity()));
+        this.tagIndex = new MenuTagIndex(this.items);
+        this.writer = writer;
+        this.json = serialize(this.items);
+        for (String tag : tagIndex.tagNames()) {
+            Set<String> tags = Set.of(tag);
+            variants.put(variantKey(TagMatchMode.ANY, tags, Set.of()), serialize(filter(TagMatchMode.ANY, tags, Set.of())));
+        }
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public List<Menu> getItems() {
+        return items;
+    }
+
+    public Optional<Menu> getItem(Integer id) {
+        return Optional.ofNullable(itemsById.get(id));
+    }
+
+    public byte[] getJson(TagMatchMode mode, Set<String> tags, Set<String> excludedTags) {
+        boolean noTags = tags == null || tags.isEmpty();
+        boolean noExclusions = excludedTags == null || excludedTags.isEmpty();
+        if (noTags && noExclusions) {
+            return json;
+        }
+        if (!noTags && tags.size() == 1) {
+            mode = TagMatchMode.ANY;
+        }
+        String key = variantKey(mode, tags, excludedTags);
+        byte[] cached = variants.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] variant = serialize(filter(mode, tags, excludedTags));
+        if (variants.size() < MAX_CACHED_VARIANTS) {
+            variants.putIfAbsent(key, variant);
+        }
+        return variant;
+    }
+
+    public List<Menu> filter(TagMatchMode mode, Set<String> tags, Set<String> excludedTags) {
+        BitSet positions = tagIndex.match(mode, tags, excludedTags);
+        List<Menu> matches = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            matches.add(items.get(position));
+        }
+        return matches;
+    }
+
+    private static String variantKey(TagMatchMode mode, Set<String> tags, Set<String> excludedTags) {
+        return mode + "|" + String.join(",", sorted(tags)) + "|" + String.join(",", sorted(excludedTags));
+    }
+
+    private static Set<String> sorted(Set<String> values) {
+        return values == null ? Set.of() : new TreeSet<>(values);
+    }
+
+    private byte[] serialize(List<Menu> menuItems) {
+        try {
+            return writer.writeValueAsBytes(menuItems);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.Tag;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from tag name to a bitset of positions in a menu snapshot's item list.
+ * ANY/ALL/NOT combinations reduce to OR/AND/AND-NOT over the bitsets.
+ */
+public final class MenuTagIndex {
+
+    private final int size;
+    private final Map<String, BitSet> positionsByTag = new HashMap<>();
+
+    MenuTagIndex(List<Menu> items) {
+        this.size = items.size();
+        for (int position = 0; position < items.size(); position++) {
+            Set<Tag> tags = items.get(position).getTags();
+            if (tags == null) {
+                continue;
+            }
+            for (Tag tag : tags) {
+                positionsByTag.computeIfAbsent(tag.getName(), name -> new BitSet(size)).set(position);
+            }
+        }
+    }
+
+    public Set<String> tagNames() {
+        return positionsByTag.keySet();
+    }
+
+    public BitSet match(TagMatchMode mode, Collection<String> tags, Collection<String> excludedTags) {
+        BitSet result = new BitSet(size);
+        if (tags == null || tags.isEmpty()) {
+            result.set(0, size);
+        } else if (mode == TagMatchMode.ALL) {
+            result.set(0, size);
+            for (String tag : tags) {
+                BitSet positions = positionsByTag.get(tag);
+                if (positions == null) {
+                    return new BitSet(size);
+                }
+                result.and(positions);
+            }
+        } else {
+            for (String tag : tags) {
+                BitSet positions = positionsByTag.get(tag);
+                if (positions != null) {
+                    result.or(positions);
+                }
+            }
+        }
+        if (excludedTags != null) {
+            for (String tag : excludedTags) {
+                BitSet positions = positionsByTag.get(tag);
+                if (positions != null) {
+                    result.andNot(positions);
+                }
+            }
+        }
+        return result;
+    }
+}
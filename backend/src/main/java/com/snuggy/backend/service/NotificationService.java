@@ -1,10 +1,12 @@
 package com.snuggy.backend.service;
 
-import com.snuggy.backend.entity.Order;
+import com.snuggy.backend.payload.KitchenQueueDelta;
+import com.snuggy.backend.payload.StockAlert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,18 +19,22 @@ public class NotificationService {
         this.simpMessagingTemplate = simpMessagingTemplate;
     }
 
-    public void sendNewOrderNotification(Order order) {
-        System.out.println("Sending notification for new paid order: " + order.getId());
-        simpMessagingTemplate.convertAndSend("/topic/staff/new-orders", Map.of("orderId", order.getId()));
+    public void sendNewOrderNotification(Integer orderId) {
+        System.out.println("Sending notification for new paid order: " + orderId);
+        simpMessagingTemplate.convertAndSend("/topic/staff/new-orders", Map.of("orderId", orderId));
     }
 
-    public void sendLowStockWarning(String productName, int stock) {
-        System.out.println("Sending low stock warning for: " + productName);
-        simpMessagingTemplate.convertAndSend("/topic/staff/stock-alerts", Map.of("productName", productName, "stock", stock));
+    public void sendKitchenQueueDelta(KitchenQueueDelta delta) {
+        simpMessagingTemplate.convertAndSend("/topic/staff/kitchen-queue", delta);
     }
 
-    public void sendOrderConfirmationToStaff(Order order) {
-        System.out.println("Sending collection confirmation for order: " + order.getId());
-        simpMessagingTemplate.convertAndSend("/topic/staff/order-confirmations", Map.of("orderId", order.getId(), "status", "CONFIRMED"));
+    public void sendStockAlerts(List<StockAlert> alerts) {
+        System.out.println("Sending " + alerts.size() + " stock alert(s)");
+        simpMessagingTemplate.convertAndSend("/topic/staff/stock-alerts", Map.of("alerts", alerts));
+    }
+
+    public void sendOrderConfirmationToStaff(Integer orderId) {
+        System.out.println("Sending collection confirmation for order: " + orderId);
+        simpMessagingTemplate.convertAndSend("/topic/staff/order-confirmations", Map.of("orderId", orderId, "status", "CONFIRMED"));
     }
 } 
\ No newline at end of file
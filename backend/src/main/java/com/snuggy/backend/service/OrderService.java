@@ -1,27 +1,49 @@
 package com.snuggy.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.snuggy.backend.entity.Menu;
 import com.snuggy.backend.entity.Order;
 import com.snuggy.backend.entity.OrderItem;
 import com.snuggy.backend.entity.User;
 import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.entity.OutboxEventType;
 import com.snuggy.backend.entity.Transaction;
 import com.snuggy.backend.entity.TransactionId;
+import com.snuggy.backend.entity.WalletEntryType;
 import com.snuggy.backend.exception.BadRequestException;
 import com.snuggy.backend.exception.ResourceNotFoundException;
+import com.snuggy.backend.payload.ActiveOrderView;
+import com.snuggy.backend.payload.DispatchOutcome;
+import com.snuggy.backend.payload.MenuItemSummary;
+import com.snuggy.backend.payload.OrderDetailDTO;
+import com.snuggy.backend.payload.OrderItemDTO;
+import com.snuggy.backend.payload.OrderSummaryDTO;
+import com.snuggy.backend.payload.PickupDTO;
+import com.snuggy.backend.payload.PushMessage;
+import com.snuggy.backend.payload.OrderFilter;
+import com.snuggy.backend.payload.OrderPage;
 import com.snuggy.backend.payload.OrderRequest;
 import com.snuggy.backend.repository.OrderRepository;
 import com.snuggy.backend.repository.UserRepository;
+import com.snuggy.backend.util.OrderCursor;
+import com.snuggy.backend.util.TransactionHooks;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -32,6 +54,12 @@ public class OrderService {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private ActiveOrderIndex activeOrderIndex;
+
+    @Autowired
+    private PushNotificationService pushNotificationService;
+
     @Autowired
     private BalanceService balanceService;
 
@@ -41,87 +69,109 @@ public class OrderService {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @Autowired
-    private RfidService rfidService;
-
     @Autowired
     private TransactionService transactionService;
 
     @Autowired
-    private NotificationService notificationService;
-
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllWithUserAndRoles();
+    private OutboxService outboxService;
+
+    /**
+     * Returns one page of orders, newest first. Ids are paged on the {@code (created_at, id)} index
+     * first and only that page's orders are then fetched with their users and items.
+     */
+    public OrderPage getOrders(OrderFilter filter, OrderCursor after, int limit) {
+        List<Integer> ids = orderRepository.findPageIds(filter, after, limit + 1);
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+        List<OrderDetailDTO> orders = ids.isEmpty() ? List.of() : toDetails(orderRepository.findSummariesByIdIn(ids));
+        OrderCursor nextCursor = null;
+        if (hasMore && !orders.isEmpty()) {
+            OrderDetailDTO last = orders.get(orders.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId());
+        }
+        return new OrderPage(orders, nextCursor);
     }
 
-    public List<Order> getOrdersByStudentId(Integer studentId) {
-        return orderRepository.findByStudentIdWithUserAndRoles(studentId);
+    public List<OrderDetailDTO> getOrdersByStudentId(Integer studentId) {
+        return toDetails(orderRepository.findSummariesByStudentId(studentId));
     }
     
-    public Optional<Order> getMostRecentActiveOrderByStudentId(Integer studentId) {
-        List<OrderStatus> activeStatuses = Arrays.asList(OrderStatus.PAID, OrderStatus.AWAITING_CONFIRMATION);
-        List<Order> activeOrders = orderRepository.findActiveOrdersByStudentId(studentId, activeStatuses);
-        return activeOrders.isEmpty() ? Optional.empty() : Optional.of(activeOrders.get(0));
+    /**
+     * Returns the student's newest active order with its items, read in one query.
+     */
+    public Optional<PickupDTO> getPickupByStudentId(Integer studentId) {
+        return orderRepository.findLatestPickup(studentId, ActiveOrderIndex.ACTIVE_STATUSES);
     }
 
-    public Optional<Order> getOrdersByRfidUid(String rfidUid) {
-        Integer studentId = rfidService.getRfidMapping(rfidUid)
-                .orElseThrow(() -> new ResourceNotFoundException("RFID UID not mapped to any student: " + rfidUid))
-                .getStudentId();
-        return getMostRecentActiveOrderByStudentId(studentId);
+    /**
+     * Attaches line items to order summaries with one additional query, keeping the summaries' order.
+     */
+    private List<OrderDetailDTO> toDetails(List<OrderSummaryDTO> summaries) {
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<OrderItemDTO>> itemsByOrderId = orderRepository.findItemsByOrderIdIn(
+                        summaries.stream().map(OrderSummaryDTO::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(OrderItemDTO::getOrderId));
+        return summaries.stream()
+                .map(summary -> OrderDetailDTO.of(summary, itemsByOrderId.getOrDefault(summary.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 
     @Transactional
-    public Order createOrder(OrderRequest orderRequest, Integer studentId) {
+    public OrderDetailDTO createOrder(OrderRequest orderRequest, Integer studentId) {
         User user = userRepository.findByIdWithRoles(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + studentId));
 
         BigDecimal totalCost = BigDecimal.ZERO;
         Order order = new Order();
         order.setUser(user);
-        order.setStatus(OrderStatus.PENDING);
+        order.setStatus(OrderStatus.PAID);
+        order.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
 
+        Map<Integer, Integer> quantitiesByMenuId = new LinkedHashMap<>();
         for (var itemRequest : orderRequest.getItems()) {
-            Menu menuItem = menuService.getMenuItem(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Menu item not found: " + itemRequest.getMenuItemId()));
-
-            if (menuItem.getStock() < itemRequest.getQuantity()) {
-                throw new BadRequestException("Not enough stock for menu item: " + menuItem.getName());
+            if (itemRequest.getQuantity() <= 0) {
+                throw new BadRequestException("Quantity must be positive for menu item: " + itemRequest.getMenuItemId());
             }
+            quantitiesByMenuId.merge(itemRequest.getMenuItemId(), itemRequest.getQuantity(), Integer::sum);
+        }
+
+        Map<Integer, MenuItemSummary> menuItemsById = menuService.getMenuItemSummaries(quantitiesByMenuId.keySet()).stream()
+                .collect(Collectors.toMap(MenuItemSummary::getId, Function.identity()));
+        List<Integer> unknownIds = quantitiesByMenuId.keySet().stream()
+                .filter(id -> !menuItemsById.containsKey(id))
+                .collect(Collectors.toList());
+        if (!unknownIds.isEmpty()) {
+            throw new ResourceNotFoundException("Menu items not found: " + unknownIds);
+        }
 
-            BigDecimal itemCost = menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+        for (var entry : quantitiesByMenuId.entrySet()) {
+            MenuItemSummary menuItem = menuItemsById.get(entry.getKey());
+            BigDecimal itemCost = menuItem.getPrice().multiply(BigDecimal.valueOf(entry.getValue()));
             totalCost = totalCost.add(itemCost);
 
-            OrderItem orderItem = new OrderItem(order, menuItem, itemRequest.getQuantity(), menuItem.getPrice());
+            OrderItem orderItem = new OrderItem(order, menuService.getMenuReference(menuItem.getId()), entry.getValue(), menuItem.getPrice());
             order.getOrderItems().add(orderItem);
         }
 
         order.setTotalAmount(totalCost);
 
-        BigDecimal currentBalance = balanceService.getBalance(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Balance not found for user with id: " + studentId))
-                .getAmount();
-
-        if (currentBalance.compareTo(totalCost) < 0) {
-            throw new BadRequestException("Insufficient balance");
+        // Flushed here rather than at commit so the insert has run and @CreationTimestamp has filled
+        // createdAt before the response and the kitchen queue view read it. The items go in the same
+        // JDBC batch flush.
+        Order savedOrder = orderRepository.saveAndFlush(order);
+
+        Map<Integer, Integer> stockLevels = menuService.reserveStock(quantitiesByMenuId);
+        Optional<Integer> outOfStock = new TreeSet<>(quantitiesByMenuId.keySet()).stream()
+                .filter(menuId -> !stockLevels.containsKey(menuId))
+                .findFirst();
+        if (outOfStock.isPresent()) {
+            throw new BadRequestException("Not enough stock for menu item: " + menuItemsById.get(outOfStock.get()).getName());
         }
-
-
-        for (var orderItem : order.getOrderItems()) {
-            menuService.updateStock(orderItem.getMenuItem().getId(), -orderItem.getQuantity());
-        }
-
-
-        balanceService.updateBalance(studentId, currentBalance.subtract(totalCost));
-
-
-        Order savedOrder = orderRepository.save(order);
-        
-
-        savedOrder.setStatus(OrderStatus.PAID);
-        savedOrder.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
-        savedOrder = orderRepository.save(savedOrder);
-        
+        stockLevels.forEach((menuId, stock) -> menuService.recordStockLevel(menuId, menuItemsById.get(menuId).getName(), stock));
 
         Transaction transaction = new Transaction();
         transaction.setId(new TransactionId(user.getId(), savedOrder.getId()));
@@ -130,11 +180,20 @@ public class OrderService {
         transaction.setAmount(totalCost);
         transaction.setCreatedAt(new Timestamp(System.currentTimeMillis()));
         transactionService.saveTransaction(transaction);
-        
 
-        notificationService.sendNewOrderNotification(savedOrder);
+        outboxService.record(savedOrder.getId(), OutboxEventType.NEW_ORDER);
+
+        // Charged last: the guarded debit locks the student's balance row until commit, and nothing
+        // else in the order should run while another order from the same student waits on it.
+        if (!balanceService.debit(studentId, totalCost, WalletEntryType.ORDER_PAYMENT, savedOrder.getId())) {
+            throw new BadRequestException("Insufficient balance");
+        }
 
-        return savedOrder;
+        Function<OrderItem, String> menuItemName = item -> menuItemsById.get(item.getMenuItem().getId()).getName();
+        ActiveOrderView activeOrder = ActiveOrderView.from(savedOrder, menuItemName);
+        TransactionHooks.afterCommit(() -> activeOrderIndex.apply(activeOrder));
+
+        return OrderDetailDTO.from(savedOrder, menuItemName);
     }
 
     public Optional<Order> getOrderById(Integer id) {
@@ -145,10 +204,114 @@ public class OrderService {
         return orderRepository.findByIdAndUserId(id, userId);
     }
 
-    public Optional<Order> updateOrderStatus(Integer id, OrderStatus status) {
-        return orderRepository.findByIdWithUserAndRoles(id).map(order -> {
-            order.setStatus(status);
-            return orderRepository.save(order);
-        });
+    /**
+     * Moves an order to {@code status} with a single conditional update, provided its current status
+     * is one {@link OrderStatus#allowedSources()} permits. Nothing is loaded unless the update is
+     * rejected, in which case the order is looked up once to report why.
+     */
+    @Transactional
+    public OrderTransitionResult transitionStatus(Integer id, OrderStatus status) {
+        if (status == OrderStatus.CANCELLED) {
+            return cancelOrder(id);
+        }
+        if (orderRepository.transition(id, status, status.allowedSources()) == 0) {
+            return orderRepository.findStatusById(id).isPresent()
+                    ? OrderTransitionResult.NOT_ALLOWED
+                    : OrderTransitionResult.NOT_FOUND;
+        }
+        TransactionHooks.afterCommit(() -> activeOrderIndex.statusChanged(id, status));
+        return OrderTransitionResult.APPLIED;
+    }
+
+    /**
+     * Cancels an order. A pending order has taken no money, but a paid one has, so its total is
+     * credited back to the student's wallet and its items are returned to stock in the same
+     * transaction as the status change.
+     */
+    private OrderTransitionResult cancelOrder(Integer id) {
+        OrderStatus status = OrderStatus.CANCELLED;
+        if (orderRepository.transition(id, status, EnumSet.of(OrderStatus.PENDING)) == 0) {
+            if (orderRepository.transition(id, status, ActiveOrderIndex.ACTIVE_STATUSES) == 0) {
+                return orderRepository.findStatusById(id).isPresent()
+                        ? OrderTransitionResult.NOT_ALLOWED
+                        : OrderTransitionResult.NOT_FOUND;
+            }
+            OrderSummaryDTO summary = orderRepository.findSummariesByIdIn(List.of(id)).get(0);
+            balanceService.credit(summary.getUser().getId(), summary.getTotalAmount(), WalletEntryType.REFUND, id);
+            Map<Integer, Integer> quantities = orderRepository.findItemsByOrderIdIn(List.of(id)).stream()
+                    .collect(Collectors.toMap(OrderItemDTO::getMenuItem, OrderItemDTO::getQuantity, Integer::sum));
+            menuService.releaseStock(quantities);
+        }
+        TransactionHooks.afterCommit(() -> activeOrderIndex.statusChanged(id, status));
+        return OrderTransitionResult.APPLIED;
+    }
+
+    /**
+     * Like {@link #transitionStatus(Integer, OrderStatus)}, but only for an order placed by the given
+     * student.
+     */
+    @Transactional
+    public OrderTransitionResult transitionStatusForStudent(Integer id, Integer studentId, OrderStatus status) {
+        if (orderRepository.transitionForStudent(id, studentId, status, status.allowedSources()) == 0) {
+            if (orderRepository.findStatusById(id).isEmpty()) {
+                return OrderTransitionResult.NOT_FOUND;
+            }
+            return orderRepository.existsByIdAndUser_Id(id, studentId)
+                    ? OrderTransitionResult.NOT_ALLOWED
+                    : OrderTransitionResult.NOT_OWNER;
+        }
+        TransactionHooks.afterCommit(() -> activeOrderIndex.statusChanged(id, status));
+        return OrderTransitionResult.APPLIED;
+    }
+
+    /**
+     * Dispatches a batch of orders with one conditional update and records a collection notice in
+     * the outbox for every dispatched order whose student has a device token.
+     */
+    @Transactional
+    public List<DispatchOutcome> dispatchOrders(Collection<Integer> orderIds) {
+        Set<Integer> ids = new LinkedHashSet<>(orderIds);
+        OrderStatus target = OrderStatus.AWAITING_CONFIRMATION;
+        Map<Integer, String> tokens = orderRepository.transitionAll(ids, target, target.allowedSources());
+
+        List<Integer> rejectedIds = ids.stream().filter(id -> !tokens.containsKey(id)).collect(Collectors.toList());
+        Map<Integer, OrderStatus> rejectedStatuses = orderRepository.findStatuses(rejectedIds);
+
+        List<DispatchOutcome> outcomes = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            if (!tokens.containsKey(id)) {
+                outcomes.add(new DispatchOutcome(id, rejectedStatuses.containsKey(id) ? "NOT_ALLOWED" : "NOT_FOUND", null));
+                continue;
+            }
+            String token = tokens.get(id);
+            if (token == null || token.trim().isEmpty()) {
+                outcomes.add(new DispatchOutcome(id, "DISPATCHED", "NO_TOKEN"));
+            } else {
+                outboxService.recordPush(id, collectionNotice(id, token));
+                outcomes.add(new DispatchOutcome(id, "DISPATCHED", "QUEUED"));
+            }
+        }
+
+        TransactionHooks.afterCommit(() -> tokens.keySet().forEach(id -> activeOrderIndex.statusChanged(id, target)));
+        return outcomes;
+    }
+
+    public PushMessage collectionNotice(Integer orderId, String token) {
+        return pushNotificationService.buildMessage(token,
+                "Order Ready for Collection",
+                "Please confirm collection for your order #" + orderId,
+                Map.of("orderId", String.valueOf(orderId)));
+    }
+
+    /**
+     * Completes a student's order awaiting collection and tells staff once the change commits.
+     */
+    @Transactional
+    public OrderTransitionResult confirmCollection(Integer id, Integer studentId) {
+        OrderTransitionResult result = transitionStatusForStudent(id, studentId, OrderStatus.COMPLETED);
+        if (result == OrderTransitionResult.APPLIED) {
+            outboxService.record(id, OutboxEventType.ORDER_CONFIRMED);
+        }
+        return result;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.snuggy.backend.service;
+
+public enum OrderTransitionResult {
+    APPLIED,
+    NOT_FOUND,
+    NOT_OWNER,
+    NOT_ALLOWED
+}
@@ -0,0 +1,154 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.OutboxEvent;
+import com.snuggy.backend.entity.OutboxEventType;
+import com.snuggy.backend.payload.PushMessage;
+import com.snuggy.backend.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox for order events. Events are inserted in the same transaction as the change
+ * they describe, so a rollback leaves nothing to announce, and a relay publishes them to STOMP and
+ * push afterwards. Delivery is at least once: an event is marked published only after its hand-off
+ * succeeded, and a crash in between republishes it. Push notices are therefore sent synchronously
+ * rather than through the in-memory push queue, which does not survive a restart.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PushNotificationService pushNotificationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Integer orderId, OutboxEventType type) {
+        outboxEventRepository.save(new OutboxEvent(orderId, type, null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPush(Integer orderId, PushMessage message) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(orderId, OutboxEventType.COLLECTION_NOTICE,
+                    objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:250}")
+    @Transactional
+    public void relay() {
+        List<OutboxEvent> events = outboxEventRepository.claimBatch(batchSize);
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> published = new ArrayList<>(events.size());
+        List<OutboxEvent> notices = new ArrayList<>();
+        try {
+            for (OutboxEvent event : events) {
+                // Consecutive collection notices go to the push backend in one call.
+                if (event.getEventType() == OutboxEventType.COLLECTION_NOTICE) {
+                    notices.add(event);
+                    continue;
+                }
+                pushCollectionNotices(notices, published);
+                publish(event);
+                published.add(event.getId());
+            }
+            pushCollectionNotices(notices, published);
+        } catch (RuntimeException e) {
+            // Stop at the first failure so later events of the same order cannot overtake it.
+            logger.warn("Outbox relay stopped after {} of {} events", published.size(), events.size(), e);
+        }
+        outboxEventRepository.markPublished(published);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void removePublished() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - retentionHours * 3_600_000);
+        int removed = outboxEventRepository.deletePublishedBefore(cutoff);
+        if (removed > 0) {
+            logger.info("Removed {} published outbox events", removed);
+        }
+    }
+
+    /**
+     * Sends the collected notices synchronously and marks those with a final outcome as published.
+     * Notices the backend failed transiently stay unpublished for the next poll, and the relay stops
+     * there, as it does for any other failure.
+     */
+    private void pushCollectionNotices(List<OutboxEvent> notices, List<Long> published) {
+        if (notices.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> sendable = new ArrayList<>(notices.size());
+        List<PushMessage> messages = new ArrayList<>(notices.size());
+        for (OutboxEvent notice : notices) {
+            try {
+                messages.add(objectMapper.readValue(notice.getPayload(), PushMessage.class));
+                sendable.add(notice);
+            } catch (JsonProcessingException e) {
+                logger.error("Discarding unreadable outbox event {}", notice.getId(), e);
+                published.add(notice.getId());
+            }
+        }
+        notices.clear();
+
+        List<PushOutcome> outcomes = pushNotificationService.sendNow(messages);
+        int retryable = 0;
+        for (int i = 0; i < sendable.size(); i++) {
+            if (outcomes.get(i) == PushOutcome.RETRYABLE) {
+                retryable++;
+            } else {
+                published.add(sendable.get(i).getId());
+            }
+        }
+        if (retryable > 0) {
+            throw new IllegalStateException(retryable + " collection notices failed transiently");
+        }
+    }
+
+    private void publish(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case NEW_ORDER:
+                notificationService.sendNewOrderNotification(event.getAggregateId());
+                break;
+            case ORDER_CONFIRMED:
+                notificationService.sendOrderConfirmationToStaff(event.getAggregateId());
+                break;
+            default:
+                logger.warn("Discarding outbox event {} of unknown type {}", event.getId(), event.getEventType());
+        }
+    }
+}
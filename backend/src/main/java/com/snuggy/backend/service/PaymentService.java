@@ -4,6 +4,7 @@ import com.snuggy.backend.entity.Order;
 import com.snuggy.backend.entity.Transaction;
 import com.snuggy.backend.entity.TransactionId;
 import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.entity.OutboxEventType;
 import com.snuggy.backend.exception.ResourceNotFoundException;
 import com.snuggy.backend.payload.PaymentCallbackRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +28,7 @@ public class PaymentService {
     private TransactionService transactionService;
 
     @Autowired
-    private NotificationService notificationService;
+    private OutboxService outboxService;
 
     public String initiatePayment(Integer orderId, BigDecimal amount) {
 
@@ -39,13 +40,18 @@ public class PaymentService {
     @Transactional
     public void handleCallback(PaymentCallbackRequest callbackRequest) {
         if ("SUCCESS".equalsIgnoreCase(callbackRequest.getStatus())) {
+            OrderTransitionResult result = orderService.transitionStatus(callbackRequest.getOrderId(), OrderStatus.PAID);
+            if (result == OrderTransitionResult.NOT_FOUND) {
+                throw new ResourceNotFoundException("Order not found with id: " + callbackRequest.getOrderId());
+            }
+            if (result != OrderTransitionResult.APPLIED) {
+                System.out.println("Ignoring payment callback for order " + callbackRequest.getOrderId() + ": not pending");
+                return;
+            }
             Order order = orderService.getOrderById(callbackRequest.getOrderId())
                     .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + callbackRequest.getOrderId()));
 
 
-            orderService.updateOrderStatus(order.getId(), OrderStatus.PAID);
-
-
             Transaction transaction = new Transaction();
             transaction.setId(new TransactionId(order.getUser().getId(), order.getId()));
             transaction.setUser(order.getUser());
@@ -55,7 +61,7 @@ public class PaymentService {
             transactionService.saveTransaction(transaction);
 
 
-            notificationService.sendNewOrderNotification(order);
+            outboxService.record(order.getId(), OutboxEventType.NEW_ORDER);
 
 
 
@@ -0,0 +1,14 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.payload.PushMessage;
+
+import java.util.List;
+
+/**
+ * Delivers push messages. Implementations send a whole batch in one call and report one outcome
+ * per message, in the same order; they never throw for delivery failures.
+ */
+public interface PushBackend {
+
+    List<PushOutcome> sendEach(List<PushMessage> messages);
+}
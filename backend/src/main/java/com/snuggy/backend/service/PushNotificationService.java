@@ -1,50 +1,269 @@
 package com.snuggy.backend.service;
 
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
-import org.springframework.stereotype.Service;
+import com.snuggy.backend.payload.PushMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Delivers push notifications off the request thread. Messages wait in a bounded queue; worker
+ * threads drain it in batches of up to {@value #MAX_BATCH_SIZE} and hand each batch to the
+ * {@link PushBackend} in one call. Transient failures are retried with exponential backoff and full
+ * jitter, and tokens the backend reports as unregistered are cleared from their users.
+ */
 @Service
 public class PushNotificationService {
 
-    private final FirebaseMessaging fcm;
-    private final boolean firebaseEnabled;
+    private static final Logger logger = LoggerFactory.getLogger(PushNotificationService.class);
+
+    // FCM accepts at most 500 messages per sendEach call.
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final PushBackend backend;
+    private final UserService userService;
+    private final BlockingQueue<Pending> queue;
+    private final int workerCount;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "push-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    private final Timer latency;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter tokensCleared;
 
     @Autowired
-    public PushNotificationService(FirebaseMessaging fcm) {
-        this.fcm = fcm;
-        this.firebaseEnabled = (fcm != null);
+    public PushNotificationService(PushBackend backend,
+                                   UserService userService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.push.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${app.push.workers:2}") int workerCount,
+                                   @Value("${app.push.max-attempts:5}") int maxAttempts,
+                                   @Value("${app.push.initial-backoff-ms:500}") long initialBackoffMs,
+                                   @Value("${app.push.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.backend = backend;
+        this.userService = userService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        Gauge.builder("push.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.latency = Timer.builder("push.latency")
+                .description("Time from enqueue to delivery, including retries")
+                .register(meterRegistry);
+        this.sent = meterRegistry.counter("push.sent");
+        this.retried = meterRegistry.counter("push.retried");
+        this.failed = meterRegistry.counter("push.failed");
+        this.dropped = meterRegistry.counter("push.dropped");
+        this.tokensCleared = meterRegistry.counter("push.tokens.cleared");
     }
 
-    public void sendNotificationToToken(String token, String title, String body, Map<String, String> data) throws FirebaseMessagingException {
-        if (!firebaseEnabled) {
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drain, "push-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
 
-            System.out.println("Firebase disabled. Would have sent notification: " + title + " - " + body);
-            return;
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.forEach(Thread::interrupt);
+        if (!queue.isEmpty()) {
+            logger.warn("Discarding {} queued push notifications on shutdown", queue.size());
+        }
+    }
+
+    public PushMessage buildMessage(String token, String title, String body, Map<String, String> data) {
+        return new PushMessage(token, title, body, data);
+    }
+
+    /**
+     * Queues a message for delivery and returns immediately. Messages without a token are skipped.
+     *
+     * @return false if the message was skipped or the queue is full
+     */
+    public boolean send(PushMessage message) {
+        if (message.getToken() == null || message.getToken().trim().isEmpty()) {
+            logger.debug("FCM token is null or empty. Skipping notification: {} - {}", message.getTitle(), message.getBody());
+            return false;
+        }
+        return offer(new Pending(message, System.nanoTime(), 1));
+    }
+
+    public void sendAllAsync(List<PushMessage> messages) {
+        messages.forEach(this::send);
+    }
+
+    /**
+     * Delivers messages on the calling thread, in backend batches of up to {@value #MAX_BATCH_SIZE},
+     * for callers that must know the outcome before moving on. Nothing is retried here; a
+     * {@link PushOutcome#RETRYABLE} outcome is the caller's to retry. Messages without a token
+     * fail, and unregistered tokens are cleared as for queued messages.
+     *
+     * @return one outcome per message, in order
+     */
+    public List<PushOutcome> sendNow(List<PushMessage> messages) {
+        List<PushOutcome> outcomes = new ArrayList<>(Collections.nCopies(messages.size(), PushOutcome.FAILED));
+        List<Integer> positions = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            String token = messages.get(i).getToken();
+            if (token != null && !token.trim().isEmpty()) {
+                positions.add(i);
+            }
         }
-        
 
-        if (token == null || token.trim().isEmpty()) {
-            System.out.println("FCM token is null or empty. Skipping notification: " + title + " - " + body);
+        Set<String> unregistered = new HashSet<>();
+        for (int from = 0; from < positions.size(); from += MAX_BATCH_SIZE) {
+            List<Integer> chunk = positions.subList(from, Math.min(from + MAX_BATCH_SIZE, positions.size()));
+            List<PushMessage> batch = new ArrayList<>(chunk.size());
+            chunk.forEach(position -> batch.add(messages.get(position)));
+            List<PushOutcome> batchOutcomes = backend.sendEach(batch);
+            for (int i = 0; i < chunk.size(); i++) {
+                PushOutcome outcome = batchOutcomes.get(i);
+                outcomes.set(chunk.get(i), outcome);
+                if (outcome == PushOutcome.SENT) {
+                    sent.increment();
+                } else if (outcome == PushOutcome.UNREGISTERED) {
+                    unregistered.add(batch.get(i).getToken());
+                } else {
+                    failed.increment();
+                }
+            }
+        }
+        clearUnregistered(unregistered);
+        return outcomes;
+    }
+
+    private boolean offer(Pending pending) {
+        if (queue.offer(pending)) {
+            return true;
+        }
+        dropped.increment();
+        logger.warn("Push queue full; dropping notification: {}", pending.message.getTitle());
+        return false;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            try {
+                deliver(batch);
+            } catch (RuntimeException e) {
+                logger.error("Unexpected failure delivering {} push notifications", batch.size(), e);
+                failed.increment(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<Pending> batch) {
+        List<PushMessage> messages = new ArrayList<>(batch.size());
+        batch.forEach(pending -> messages.add(pending.message));
+        List<PushOutcome> outcomes = backend.sendEach(messages);
+
+        Set<String> unregistered = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            switch (outcomes.get(i)) {
+                case SENT:
+                    sent.increment();
+                    latency.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+                    break;
+                case UNREGISTERED:
+                    unregistered.add(pending.message.getToken());
+                    break;
+                case RETRYABLE:
+                    if (pending.attempt < maxAttempts) {
+                        scheduleRetry(pending);
+                        break;
+                    }
+                    failed.increment();
+                    break;
+                default:
+                    failed.increment();
+            }
+        }
+
+        clearUnregistered(unregistered);
+    }
+
+    private void clearUnregistered(Set<String> unregistered) {
+        if (unregistered.isEmpty()) {
             return;
         }
-        
-        Notification notification = Notification.builder()
-                .setTitle(title)
-                .setBody(body)
-                .build();
+        try {
+            int cleared = userService.clearFcmTokens(unregistered);
+            tokensCleared.increment(cleared);
+            logger.info("Cleared {} unregistered FCM tokens", cleared);
+        } catch (RuntimeException e) {
+            logger.error("Failed to clear {} unregistered FCM tokens", unregistered.size(), e);
+        }
+    }
+
+    private void scheduleRetry(Pending pending) {
+        retried.increment();
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(pending.attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        Pending next = new Pending(pending.message, pending.enqueuedAt, pending.attempt + 1);
+        retryScheduler.schedule(() -> {
+            offer(next);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
 
-        Message message = Message.builder()
-                .setToken(token)
-                .setNotification(notification)
-                .putAllData(data)
-                .build();
+    private static final class Pending {
+        private final PushMessage message;
+        private final long enqueuedAt;
+        private final int attempt;
 
-        fcm.send(message);
+        private Pending(PushMessage message, long enqueuedAt, int attempt) {
+            this.message = message;
+            this.enqueuedAt = enqueuedAt;
+            this.attempt = attempt;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.snuggy.backend.service;
+
+public enum PushOutcome {
+    SENT,
+    // Transient failure (unavailable, quota, internal error); worth retrying later.
+    RETRYABLE,
+    // The device token is no longer valid and should be forgotten.
+    UNREGISTERED,
+    // Permanent failure for this message.
+    FAILED
+}
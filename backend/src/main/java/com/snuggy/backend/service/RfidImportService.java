@@ -0,0 +1,158 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.RfidMapping;
+import com.snuggy.backend.payload.BulkRowResult;
+import com.snuggy.backend.payload.RfidProvisionRequest;
+import com.snuggy.backend.repository.RfidMappingRepository;
+import com.snuggy.backend.repository.UserRepository;
+import com.snuggy.backend.util.BulkRow;
+import com.snuggy.backend.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Provisions RFID cards in bulk in a single transaction. Each chunk of {@link #CHUNK_SIZE} rows
+ * costs one lookup for emails, one for student ids and one JDBC batch insert; rows that clash
+ * with an existing card or student are reported rather than overwritten.
+ */
+@Service
+public class RfidImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private RfidMappingRepository rfidMappingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RfidUidCache rfidUidCache;
+
+    @Transactional
+    public List<BulkRowResult> provision(Iterator<BulkRow<RfidProvisionRequest>> rows) {
+        List<BulkRowResult> results = new ArrayList<>();
+        List<RfidMapping> created = new ArrayList<>();
+        List<BulkRow<RfidProvisionRequest>> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            BulkRow<RfidProvisionRequest> row = rows.next();
+            String error = row.isValid() ? validate(row.getValue()) : row.getError();
+            if (error != null) {
+                results.add(new BulkRowResult(row.getRowNumber(), null, "INVALID", error));
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                provisionChunk(chunk, results, created);
+                chunk.clear();
+            }
+        }
+        provisionChunk(chunk, results, created);
+
+        if (!created.isEmpty()) {
+            TransactionHooks.afterCommit(() -> created.forEach(mapping ->
+                    rfidUidCache.put(mapping.getRfidUid(), mapping.getStudentId())));
+        }
+        results.sort(Comparator.comparingInt(BulkRowResult::getRow));
+        return results;
+    }
+
+    private void provisionChunk(List<BulkRow<RfidProvisionRequest>> chunk, List<BulkRowResult> results,
+                                List<RfidMapping> created) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> emails = chunk.stream()
+                .map(row -> row.getValue().getEmail())
+                .filter(email -> email != null)
+                .collect(Collectors.toSet());
+        Map<String, Integer> idsByEmail = new HashMap<>();
+        if (!emails.isEmpty()) {
+            for (Object[] user : userRepository.findIdsByEmailIn(emails)) {
+                idsByEmail.put((String) user[0], (Integer) user[1]);
+            }
+        }
+        Set<Integer> studentIds = chunk.stream()
+                .map(row -> row.getValue().getStudentId())
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Set<Integer> existingIds = studentIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(studentIds));
+
+        List<BulkRow<RfidProvisionRequest>> resolved = new ArrayList<>(chunk.size());
+        List<RfidMapping> mappings = new ArrayList<>(chunk.size());
+        for (BulkRow<RfidProvisionRequest> row : chunk) {
+            RfidProvisionRequest request = row.getValue();
+            Integer studentId = request.getEmail() != null ? idsByEmail.get(request.getEmail()) : request.getStudentId();
+            if (studentId == null || (request.getEmail() == null && !existingIds.contains(studentId))) {
+                results.add(new BulkRowResult(row.getRowNumber(), null, "NOT_FOUND", request.getEmail() != null
+                        ? "User not found with email: " + request.getEmail()
+                        : "User not found with id: " + request.getStudentId()));
+                continue;
+            }
+            resolved.add(row);
+            mappings.add(new RfidMapping(request.getRfidUid(), studentId));
+        }
+
+        int[] counts = rfidMappingRepository.insertIgnoringConflicts(mappings);
+        Map<String, Integer> conflictingCards = new HashMap<>();
+        Map<Integer, String> conflictingStudents = new HashMap<>();
+        if (Arrays.stream(counts).anyMatch(count -> count == 0)) {
+            List<String> uids = new ArrayList<>();
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    uids.add(mappings.get(i).getRfidUid());
+                    ids.add(mappings.get(i).getStudentId());
+                }
+            }
+            rfidMappingRepository.findAllById(uids).forEach(mapping -> conflictingCards.put(mapping.getRfidUid(), mapping.getStudentId()));
+            rfidMappingRepository.findByStudentIdIn(ids).forEach(mapping -> conflictingStudents.put(mapping.getStudentId(), mapping.getRfidUid()));
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            int rowNumber = resolved.get(i).getRowNumber();
+            RfidMapping mapping = mappings.get(i);
+            if (counts[i] > 0) {
+                created.add(mapping);
+                results.add(new BulkRowResult(rowNumber, mapping.getStudentId(), "CREATED", null));
+                continue;
+            }
+            Integer cardOwner = conflictingCards.get(mapping.getRfidUid());
+            if (mapping.getStudentId().equals(cardOwner)) {
+                results.add(new BulkRowResult(rowNumber, mapping.getStudentId(), "UNCHANGED", null));
+            } else if (cardOwner != null) {
+                results.add(new BulkRowResult(rowNumber, mapping.getStudentId(), "CONFLICT",
+                        "Card " + mapping.getRfidUid() + " is already registered to student " + cardOwner));
+            } else {
+                results.add(new BulkRowResult(rowNumber, mapping.getStudentId(), "CONFLICT",
+                        "Student " + mapping.getStudentId() + " already has card "
+                                + conflictingStudents.get(mapping.getStudentId())));
+            }
+        }
+    }
+
+    private String validate(RfidProvisionRequest request) {
+        if (request == null || request.getRfidUid() == null || request.getRfidUid().isBlank()) {
+            return "uid is required";
+        }
+        if (request.getRfidUid().length() > 255) {
+            return "uid must be at most 255 characters";
+        }
+        if ((request.getEmail() == null) == (request.getStudentId() == null)) {
+            return "Exactly one of email or studentId is required";
+        }
+        return null;
+    }
+}
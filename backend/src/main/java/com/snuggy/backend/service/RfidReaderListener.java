@@ -0,0 +1,291 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.exception.ResourceNotFoundException;
+import com.snuggy.backend.util.RfidFrame;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Plain TCP endpoint for counter RFID readers, so a tap does not pay for HTTP, JWT parsing and the
+ * security filter chain. One selector thread owns every socket; frames are decoded there and taps
+ * are resolved on a small worker pool, since resolving one may touch the database. Each connection
+ * handles one tap at a time: reading pauses until its reply has been written. See {@link RfidFrame}
+ * for the wire format. Disabled unless {@code app.rfid.reader.enabled} is set.
+ */
+@Component
+public class RfidReaderListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RfidReaderListener.class);
+
+    @Autowired
+    private RfidTapService rfidTapService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rfid.reader.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.rfid.reader.host:0.0.0.0}")
+    private String host;
+
+    @Value("${app.rfid.reader.port:9400}")
+    private int port;
+
+    @Value("${app.rfid.reader.workers:2}")
+    private int workerCount;
+
+    @Value("${app.rfid.reader.max-clock-skew-ms:30000}")
+    private long maxClockSkewMs;
+
+    /** Comma-separated {@code readerId=secret} pairs. */
+    @Value("${app.rfid.reader.secrets:}")
+    private String secretList;
+
+    private final Map<String, byte[]> secrets = new HashMap<>();
+    private final Queue<Connection> repliesReady = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private ExecutorService workers;
+    private Thread selectorThread;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        for (String entry : secretList.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                secrets.put(entry.substring(0, separator).trim(),
+                        entry.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (secrets.isEmpty()) {
+            logger.warn("RFID reader listener enabled without any reader secrets; every tap will be rejected");
+        }
+
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(host, port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "rfid-reader-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        selectorThread = new Thread(this::run, "rfid-reader-listener");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        logger.info("RFID reader listener on {}:{} for {} readers", host, port, secrets.size());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (selector == null) {
+            return;
+        }
+        workers.shutdownNow();
+        selector.close();
+        server.close();
+    }
+
+    private void run() {
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Connection ready;
+                while ((ready = repliesReady.poll()) != null) {
+                    ready.startWriting();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            ((Connection) key.attachment()).read();
+                        } else if (key.isWritable()) {
+                            ((Connection) key.attachment()).write();
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Closing RFID reader connection", e);
+                        closeQuietly(key);
+                    }
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            // Shutting down.
+        } catch (IOException e) {
+            logger.error("RFID reader listener stopped", e);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(key, channel));
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // Already gone.
+        }
+    }
+
+    private Map<String, Object> resolve(RfidFrame.Tap tap) {
+        byte[] secret = secrets.get(tap.getReaderId());
+        if (secret == null || !tap.isSignedWith(secret)) {
+            return Map.of("status", "UNAUTHORIZED");
+        }
+        if (Math.abs(System.currentTimeMillis() - tap.getTimestamp()) > maxClockSkewMs) {
+            return Map.of("status", "STALE");
+        }
+        try {
+            TapResult result = rfidTapService.tap(tap.getReaderId(), tap.getUid());
+            Map<String, Object> reply = new LinkedHashMap<>();
+            reply.put("status", result.getPickup().isPresent() ? "OK" : "NO_ACTIVE_ORDER");
+            reply.put("uid", tap.getUid());
+            reply.put("repeat", result.isRepeat());
+            result.getPickup().ifPresent(pickup -> reply.put("order", pickup));
+            return reply;
+        } catch (ResourceNotFoundException e) {
+            return Map.of("status", "UNKNOWN_CARD", "uid", tap.getUid());
+        } catch (RuntimeException e) {
+            logger.error("Failed to resolve tap from reader {}", tap.getReaderId(), e);
+            return Map.of("status", "ERROR");
+        }
+    }
+
+    private byte[] encode(Map<String, Object> reply) {
+        try {
+            return RfidFrame.encodeReply(objectMapper.writeValueAsBytes(reply));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Per-socket state. Touched only by the selector thread, except {@link #reply}, which hands the
+     * finished reply back to it.
+     */
+    private final class Connection {
+        private final SelectionKey key;
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(4 + RfidFrame.MAX_BODY_LENGTH);
+        private volatile ByteBuffer out;
+
+        private Connection(SelectionKey key, SocketChannel channel) {
+            this.key = key;
+            this.channel = channel;
+        }
+
+        private void read() throws IOException {
+            if (channel.read(in) < 0) {
+                closeQuietly(key);
+                return;
+            }
+            takeFrame();
+        }
+
+        /**
+         * Starts resolving the next complete frame in the buffer, if there is one.
+         */
+        private void takeFrame() {
+            if (in.position() < 4) {
+                return;
+            }
+            int length = in.getInt(0);
+            if (length <= 0 || length > RfidFrame.MAX_BODY_LENGTH) {
+                closeQuietly(key);
+                return;
+            }
+            if (in.position() < 4 + length) {
+                return;
+            }
+            byte[] body = new byte[length];
+            in.flip();
+            in.position(4);
+            in.get(body);
+            in.compact();
+
+            key.interestOps(0);
+            RfidFrame.Tap tap;
+            try {
+                tap = RfidFrame.decodeTap(body);
+            } catch (IllegalArgumentException e) {
+                reply(Map.of("status", "BAD_FRAME"));
+                return;
+            }
+            try {
+                workers.execute(() -> reply(resolve(tap)));
+            } catch (RejectedExecutionException e) {
+                closeQuietly(key);
+            }
+        }
+
+        private void reply(Map<String, Object> reply) {
+            out = ByteBuffer.wrap(encode(reply));
+            repliesReady.add(this);
+            selector.wakeup();
+        }
+
+        private void startWriting() {
+            if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void write() throws IOException {
+            channel.write(out);
+            if (out.hasRemaining()) {
+                return;
+            }
+            out = null;
+            key.interestOps(SelectionKey.OP_READ);
+            takeFrame();
+        }
+    }
+}
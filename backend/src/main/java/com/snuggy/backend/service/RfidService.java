@@ -2,10 +2,14 @@ package com.snuggy.backend.service;
 
 import com.snuggy.backend.entity.RfidMapping;
 import com.snuggy.backend.repository.RfidMappingRepository;
+import com.snuggy.backend.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class RfidService {
@@ -13,8 +17,43 @@ public class RfidService {
     @Autowired
     private RfidMappingRepository rfidMappingRepository;
 
+    @Autowired
+    private RfidUidCache rfidUidCache;
+
+    @Autowired
+    private ScanSessionCache scanSessionCache;
+
+    /**
+     * Maps the card to the student, replacing the student's previous card. The caches drop the
+     * replaced card once the change commits, so it stops resolving to the student at the counter.
+     */
+    @Transactional
     public RfidMapping registerRfid(RfidMapping rfidMapping) {
-        return rfidMappingRepository.save(rfidMapping);
+        List<String> replacedUids = rfidMappingRepository.findByStudentIdIn(List.of(rfidMapping.getStudentId())).stream()
+                .map(RfidMapping::getRfidUid)
+                .filter(uid -> !uid.equals(rfidMapping.getRfidUid()))
+                .collect(Collectors.toList());
+        if (!replacedUids.isEmpty()) {
+            rfidMappingRepository.deleteAllById(replacedUids);
+            // Deleted before the new row goes in, which would otherwise break the unique student_id.
+            rfidMappingRepository.flush();
+        }
+        RfidMapping saved = rfidMappingRepository.save(rfidMapping);
+        TransactionHooks.afterCommit(() -> {
+            replacedUids.forEach(uid -> {
+                rfidUidCache.remove(uid);
+                scanSessionCache.invalidate(uid);
+            });
+            rfidUidCache.put(saved.getRfidUid(), saved.getStudentId());
+            // The card may have belonged to another student, or the student to another card.
+            scanSessionCache.invalidate(saved.getRfidUid());
+            scanSessionCache.invalidateStudent(saved.getStudentId());
+        });
+        return saved;
+    }
+
+    public Optional<Integer> resolveStudentId(String uid) {
+        return rfidUidCache.resolve(uid);
     }
 
     public Optional<RfidMapping> getRfidMapping(String uid) {
@@ -0,0 +1,40 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single entry point for card taps from both the HTTP endpoint and the reader listener. Repeated
+ * reports of one tap are flagged by {@link TapDebouncer}, and the card's order is looked up at most
+ * once per scan session.
+ */
+@Service
+public class RfidTapService {
+
+    @Autowired
+    private TapDebouncer tapDebouncer;
+
+    @Autowired
+    private ScanSessionCache scanSessionCache;
+
+    @Autowired
+    private RfidService rfidService;
+
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * @throws ResourceNotFoundException if the card is not registered to any student
+     */
+    public TapResult tap(String readerId, String uid) {
+        boolean repeat = !tapDebouncer.register(readerId, uid);
+        ScanSessionCache.Session session = scanSessionCache.get(uid);
+        if (session == null) {
+            Integer studentId = rfidService.resolveStudentId(uid)
+                    .orElseThrow(() -> new ResourceNotFoundException("RFID UID not mapped to any student: " + uid));
+            session = scanSessionCache.put(uid, studentId, orderService.getPickupByStudentId(studentId));
+        }
+        return new TapResult(session.getPickup(), repeat);
+    }
+}
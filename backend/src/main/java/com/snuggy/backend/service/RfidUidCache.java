@@ -0,0 +1,145 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.RfidMapping;
+import com.snuggy.backend.repository.RfidMappingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory RFID UID to student id map, loaded once at startup so a tap at the pickup counter
+ * resolves without a database round trip. Unknown UIDs are remembered for a short while so a
+ * card that is tapped again and again does not query Postgres each time. Both maps are bounded;
+ * once the positive map is full, further cards are still resolved, just from the database.
+ */
+@Component
+public class RfidUidCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RfidUidCache.class);
+
+    private final RfidMappingRepository rfidMappingRepository;
+    private final int maxEntries;
+    private final int maxUnknownEntries;
+    private final long unknownTtlMs;
+
+    private final Map<String, Integer> studentIds = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Long> unknownUntil = new LinkedHashMap<>();
+
+    private final Counter hits;
+    private final Counter unknownHits;
+    private final Counter misses;
+
+    @Autowired
+    public RfidUidCache(RfidMappingRepository rfidMappingRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.rfid.cache.max-entries:100000}") int maxEntries,
+                        @Value("${app.rfid.cache.unknown-max-entries:10000}") int maxUnknownEntries,
+                        @Value("${app.rfid.cache.unknown-ttl-ms:60000}") long unknownTtlMs) {
+        this.rfidMappingRepository = rfidMappingRepository;
+        this.maxEntries = maxEntries;
+        this.maxUnknownEntries = maxUnknownEntries;
+        this.unknownTtlMs = unknownTtlMs;
+
+        Gauge.builder("rfid.cache.size", studentIds, Map::size).register(meterRegistry);
+        this.hits = meterRegistry.counter("rfid.cache.lookups", "result", "hit");
+        this.unknownHits = meterRegistry.counter("rfid.cache.lookups", "result", "unknown");
+        this.misses = meterRegistry.counter("rfid.cache.lookups", "result", "miss");
+    }
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : rfidMappingRepository.findAllUidsAndStudentIds()) {
+            if (studentIds.size() >= maxEntries) {
+                logger.warn("RFID cache is full at {} entries; remaining cards resolve from the database", maxEntries);
+                break;
+            }
+            studentIds.put((String) row[0], (Integer) row[1]);
+        }
+        logger.info("RFID cache loaded with {} cards", studentIds.size());
+    }
+
+    /**
+     * Resolves a UID to a student id, loading and remembering the answer on a miss.
+     */
+    public Optional<Integer> resolve(String uid) {
+        Integer studentId = studentIds.get(uid);
+        if (studentId != null) {
+            hits.increment();
+            return Optional.of(studentId);
+        }
+        if (isKnownUnknown(uid)) {
+            unknownHits.increment();
+            return Optional.empty();
+        }
+        misses.increment();
+        Optional<Integer> loaded = rfidMappingRepository.findByRfidUid(uid).map(RfidMapping::getStudentId);
+        if (loaded.isPresent()) {
+            put(uid, loaded.get());
+        } else {
+            rememberUnknown(uid);
+        }
+        return loaded;
+    }
+
+    public void put(String uid, Integer studentId) {
+        synchronized (unknownUntil) {
+            unknownUntil.remove(uid);
+        }
+        if (studentIds.size() < maxEntries || studentIds.containsKey(uid)) {
+            studentIds.put(uid, studentId);
+        }
+    }
+
+    /**
+     * Forgets a card that no longer belongs to anyone, so its next tap is looked up again.
+     */
+    public void remove(String uid) {
+        synchronized (unknownUntil) {
+            unknownUntil.remove(uid);
+        }
+        studentIds.remove(uid);
+    }
+
+    private boolean isKnownUnknown(String uid) {
+        synchronized (unknownUntil) {
+            Long until = unknownUntil.get(uid);
+            if (until == null) {
+                return false;
+            }
+            if (until < System.currentTimeMillis()) {
+                unknownUntil.remove(uid);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void rememberUnknown(String uid) {
+        long now = System.currentTimeMillis();
+        synchronized (unknownUntil) {
+            unknownUntil.remove(uid);
+            // Entries are kept in insertion order, so expired ones and then the oldest come first.
+            Iterator<Long> expiries = unknownUntil.values().iterator();
+            while (expiries.hasNext()) {
+                long expiry = expiries.next();
+                if (expiry >= now && unknownUntil.size() < maxUnknownEntries) {
+                    break;
+                }
+                expiries.remove();
+            }
+            unknownUntil.put(uid, now + unknownTtlMs);
+        }
+    }
+}
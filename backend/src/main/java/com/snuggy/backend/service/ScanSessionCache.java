@@ -0,0 +1,71 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.payload.PickupDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, for a few seconds after a card is tapped, which student it belongs to and the order
+ * they are collecting, so taps that follow answer from memory. A session is dropped as soon as
+ * any of that student's active orders changes or the card is registered again, and otherwise
+ * expires after {@code app.rfid.session-ttl-ms}.
+ */
+@Component
+public class ScanSessionCache {
+
+    private final long ttlMs;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public ScanSessionCache(@Value("${app.rfid.session-ttl-ms:5000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public Session get(String uid) {
+        Session session = sessions.get(uid);
+        if (session == null || session.expiresAt < System.currentTimeMillis()) {
+            return null;
+        }
+        return session;
+    }
+
+    public Session put(String uid, Integer studentId, Optional<PickupDTO> pickup) {
+        Session session = new Session(studentId, pickup, System.currentTimeMillis() + ttlMs);
+        sessions.put(uid, session);
+        return session;
+    }
+
+    public void invalidate(String uid) {
+        sessions.remove(uid);
+    }
+
+    public void invalidateStudent(Integer studentId) {
+        sessions.values().removeIf(session -> session.studentId.equals(studentId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.rfid.session-ttl-ms:5000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.expiresAt < now);
+    }
+
+    public static final class Session {
+        private final Integer studentId;
+        private final Optional<PickupDTO> pickup;
+        private final long expiresAt;
+
+        private Session(Integer studentId, Optional<PickupDTO> pickup, long expiresAt) {
+            this.studentId = studentId;
+            this.pickup = pickup;
+            this.expiresAt = expiresAt;
+        }
+
+        public Optional<PickupDTO> getPickup() {
+            return pickup;
+        }
+    }
+}
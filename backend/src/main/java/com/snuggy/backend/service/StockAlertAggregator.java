@@ -0,0 +1,105 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.payload.StockAlert;
+import com.snuggy.backend.repository.MenuRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns stock updates into staff alerts. Only transitions between {@link StockLevel}s are kept, the
+ * latest one per item wins, and everything pending is published as a single frame on each tick of
+ * the scheduler, so request threads never touch the broker and bursts collapse into one message.
+ */
+@Component
+public class StockAlertAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertAggregator.class);
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${app.stock.low-threshold:5}")
+    private int defaultLowStockThreshold;
+
+    private final Map<Integer, Integer> thresholds = new ConcurrentHashMap<>();
+
+    // Level of the most recent observation, used to detect transitions on the calling thread.
+    private final Map<Integer, StockLevel> observedLevels = new ConcurrentHashMap<>();
+
+    // Level staff were last told about; only touched by the publishing thread.
+    private final Map<Integer, StockLevel> publishedLevels = new ConcurrentHashMap<>();
+
+    private final Map<Integer, StockAlert> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Menu menu : menuRepository.findAll()) {
+            if (menu.getLowStockThreshold() != null) {
+                thresholds.put(menu.getId(), menu.getLowStockThreshold());
+            }
+            StockLevel level = StockLevel.of(menu.getStock() != null ? menu.getStock() : 0, thresholdOf(menu.getId()));
+            observedLevels.put(menu.getId(), level);
+            publishedLevels.put(menu.getId(), level);
+        }
+        logger.info("Stock alert levels loaded for {} menu items", observedLevels.size());
+    }
+
+    public void setThreshold(Integer menuId, Integer lowStockThreshold) {
+        if (lowStockThreshold != null) {
+            thresholds.put(menuId, lowStockThreshold);
+        } else {
+            thresholds.remove(menuId);
+        }
+    }
+
+    public void record(Integer menuId, String productName, int stock) {
+        StockLevel level = StockLevel.of(stock, thresholdOf(menuId));
+        StockLevel previous = observedLevels.put(menuId, level);
+        boolean changed = previous == null ? level != StockLevel.OK : previous != level;
+        if (changed || pending.containsKey(menuId)) {
+            pending.put(menuId, new StockAlert(menuId, productName, stock, level, previous));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.alert-interval-ms:2000}")
+    public void publish() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<StockAlert> alerts = new ArrayList<>();
+        for (Integer menuId : new ArrayList<>(pending.keySet())) {
+            StockAlert alert = pending.remove(menuId);
+            if (alert == null) {
+                continue;
+            }
+            StockLevel published = publishedLevels.getOrDefault(menuId, StockLevel.OK);
+            // An item that dipped and recovered within one interval has nothing to report.
+            if (alert.getLevel() != published) {
+                alert.setPreviousLevel(published);
+                publishedLevels.put(menuId, alert.getLevel());
+                alerts.add(alert);
+            }
+        }
+        if (!alerts.isEmpty()) {
+            notificationService.sendStockAlerts(alerts);
+        }
+    }
+
+    private int thresholdOf(Integer menuId) {
+        return thresholds.getOrDefault(menuId, defaultLowStockThreshold);
+    }
+}
@@ -0,0 +1,235 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.exception.BadRequestException;
+import com.snuggy.backend.repository.MenuRepository;
+import com.snuggy.backend.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock counters used when {@code app.stock.mode=memory}. Reservations are CAS loops on
+ * per-item counters and never take stock below zero; the net change since the last flush is written
+ * back to the {@code menu} table periodically and on shutdown.
+ */
+@Service
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Value("${app.stock.mode:database}")
+    private String mode;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+    private final TransactionTemplate transaction;
+
+    @Autowired
+    public StockLedger(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return "memory".equalsIgnoreCase(mode);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!isEnabled()) {
+            return;
+        }
+        menuRepository.findAllStockLevels().forEach(this::track);
+        logger.info("Stock ledger loaded {} menu items", counters.size());
+    }
+
+    public void track(Integer menuId, int stock) {
+        counters.put(menuId, new Counter(stock));
+    }
+
+    public Optional<Integer> available(Integer menuId) {
+        return Optional.ofNullable(counter(menuId)).map(counter -> counter.available.get());
+    }
+
+    /**
+     * Takes the given quantities in ascending menu id order, stopping at the first item without
+     * enough stock and putting back what was already taken.
+     *
+     * @return the stock left for each reserved item; on failure, the items taken before the one that
+     *         failed, which the caller must treat as a rejected order
+     */
+    public Map<Integer, Integer> reserve(Map<Integer, Integer> quantitiesByMenuId) {
+        Map<Integer, Integer> reserved = new TreeMap<>();
+        Map<Integer, Integer> stockLevels = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<>(quantitiesByMenuId).entrySet()) {
+            Counter counter = counter(entry.getKey());
+            int stock = counter == null ? -1 : counter.tryTake(entry.getValue());
+            if (stock < 0) {
+                reserved.forEach(this::release);
+                return stockLevels;
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+            stockLevels.put(entry.getKey(), stock);
+        }
+        TransactionHooks.afterRollback(() -> reserved.forEach(this::release));
+        return stockLevels;
+    }
+
+    /**
+     * Puts reserved stock back, for example when a paid order is cancelled. The release is undone if
+     * the surrounding transaction rolls back.
+     */
+    public void restock(Map<Integer, Integer> quantitiesByMenuId) {
+        Map<Integer, Integer> restocked = new TreeMap<>();
+        new TreeMap<>(quantitiesByMenuId).forEach((menuId, quantity) -> {
+            Counter counter = counter(menuId);
+            if (counter != null) {
+                counter.add(quantity);
+                restocked.put(menuId, quantity);
+            }
+        });
+        TransactionHooks.afterRollback(() -> restocked.forEach((menuId, quantity) -> release(menuId, -quantity)));
+    }
+
+    /**
+     * Applies a restock or write-off. A change that would take stock below zero is rejected rather
+     * than clamped, so the counter never records a delta the caller did not ask for. The change is
+     * reversed if the surrounding transaction rolls back.
+     *
+     * @return the new stock level, or empty if the menu item does not exist
+     */
+    public Optional<Integer> adjust(Integer menuId, int quantityChange) {
+        Counter counter = counter(menuId);
+        if (counter == null) {
+            return Optional.empty();
+        }
+        int stock = counter.tryAdd(quantityChange);
+        if (stock < 0) {
+            throw new BadRequestException("Stock for menu item " + menuId + " cannot go below zero");
+        }
+        TransactionHooks.afterRollback(() -> counter.add(-quantityChange));
+        return Optional.of(stock);
+    }
+
+    // Runs in its own transaction template rather than @Transactional so that the shutdown flush,
+    // which calls it directly and bypasses the proxy, is transactional too.
+    @Scheduled(fixedDelayString = "${app.stock.flush-interval-ms:1000}")
+    public void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> writeBack());
+    }
+
+    private void writeBack() {
+        SortedMap<Integer, Integer> deltas = new TreeMap<>();
+        counters.forEach((menuId, counter) -> {
+            int delta = counter.unflushed.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(menuId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            menuRepository.applyStockDeltas(deltas);
+        } catch (RuntimeException e) {
+            deltas.forEach((menuId, delta) -> counters.get(menuId).unflushed.addAndGet(delta));
+            throw e;
+        }
+        TransactionHooks.afterRollback(() ->
+                deltas.forEach((menuId, delta) -> counters.get(menuId).unflushed.addAndGet(delta)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush stock ledger on shutdown", e);
+        }
+    }
+
+    private void release(Integer menuId, int quantity) {
+        counters.get(menuId).add(quantity);
+    }
+
+    private Counter counter(Integer menuId) {
+        Counter counter = counters.get(menuId);
+        if (counter != null || !isEnabled()) {
+            return counter;
+        }
+        return menuRepository.findById(menuId)
+                .map(Menu::getStock)
+                .map(stock -> counters.computeIfAbsent(menuId, id -> new Counter(stock)))
+                .orElse(null);
+    }
+
+    private static final class Counter {
+        private final AtomicInteger available;
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        private Counter(int stock) {
+            this.available = new AtomicInteger(stock);
+        }
+
+        /**
+         * @return the new level, or -1 if there was not enough stock
+         */
+        private int tryTake(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return -1;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    unflushed.addAndGet(-quantity);
+                    return current - quantity;
+                }
+            }
+        }
+
+        private void add(int quantity) {
+            available.addAndGet(quantity);
+            unflushed.addAndGet(quantity);
+        }
+
+        /**
+         * Adds {@code quantity}, which may be negative, unless the result would be below zero.
+         *
+         * @return the new level, or -1 if the change was rejected
+         */
+        private int tryAdd(int quantity) {
+            while (true) {
+                int current = available.get();
+                int next = current + quantity;
+                if (next < 0) {
+                    return -1;
+                }
+                if (available.compareAndSet(current, next)) {
+                    unflushed.addAndGet(quantity);
+                    return next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.snuggy.backend.service;
+
+public enum StockLevel {
+    OK,
+    LOW,
+    OUT_OF_STOCK;
+
+    static StockLevel of(int stock, int lowStockThreshold) {
+        if (stock <= 0) {
+            return OUT_OF_STOCK;
+        }
+        return stock < lowStockThreshold ? LOW : OK;
+    }
+}
@@ -0,0 +1,6 @@
+package com.snuggy.backend.service;
+
+public enum TagMatchMode {
+    ANY,
+    ALL
+}
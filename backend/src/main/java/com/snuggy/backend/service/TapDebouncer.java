@@ -0,0 +1,46 @@
+package com.snuggy.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collapses the burst of reports a reader sends for one physical tap. Scans are recorded in two
+ * time buckets, the current window and the one before it, and a scan of the same card on the same
+ * reader found in either is a repeat. When time moves past the current bucket the older one is
+ * dropped whole, so no per-entry expiry is needed and memory holds only the last two windows.
+ */
+@Component
+public class TapDebouncer {
+
+    private final long windowMs;
+
+    // Guarded by this.
+    private long currentBucket;
+    private Set<String> current = new HashSet<>();
+    private Set<String> previous = new HashSet<>();
+
+    public TapDebouncer(@Value("${app.rfid.debounce-window-ms:1500}") long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Records a scan and returns whether it is the first from this reader for this card within
+     * the debounce window.
+     */
+    public synchronized boolean register(String readerId, String uid) {
+        long bucket = System.currentTimeMillis() / windowMs;
+        if (bucket != currentBucket) {
+            previous = bucket == currentBucket + 1 ? current : new HashSet<>();
+            current = new HashSet<>();
+            currentBucket = bucket;
+        }
+        String key = readerId + '\u0000' + uid;
+        // Always recorded in the current bucket, so a card held against the reader keeps being a
+        // repeat for as long as it keeps reporting, not only until the previous bucket is dropped.
+        boolean first = current.add(key);
+        return first && !previous.contains(key);
+    }
+}
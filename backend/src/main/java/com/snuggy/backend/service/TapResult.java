@@ -0,0 +1,28 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.payload.PickupDTO;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one reported card tap. {@code repeat} is set when the same reader already reported
+ * this card within the debounce window, in which case callers should not act on it again.
+ */
+public class TapResult {
+
+    private final Optional<PickupDTO> pickup;
+    private final boolean repeat;
+
+    public TapResult(Optional<PickupDTO> pickup, boolean repeat) {
+        this.pickup = pickup;
+        this.repeat = repeat;
+    }
+
+    public Optional<PickupDTO> getPickup() {
+        return pickup;
+    }
+
+    public boolean isRepeat() {
+        return repeat;
+    }
+}
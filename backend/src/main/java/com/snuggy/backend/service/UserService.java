@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+
 @Service
 public class UserService {
 
@@ -26,6 +28,14 @@ public class UserService {
         userRepository.save(user);
     }
 
+    /**
+     * Forgets device tokens the push provider has reported as no longer registered.
+     */
+    @Transactional
+    public int clearFcmTokens(Collection<String> tokens) {
+        return tokens.isEmpty() ? 0 : userRepository.clearFcmTokens(tokens);
+    }
+
     public User getUserByEmail(String email) {
         return userRepository.findByEmailWithRoles(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
@@ -0,0 +1,37 @@
+package com.snuggy.backend.util;
+
+public class BulkRow<T> {
+    private final int rowNumber;
+    private final T value;
+    private final String error;
+
+    private BulkRow(int rowNumber, T value, String error) {
+        this.rowNumber = rowNumber;
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> BulkRow<T> of(int rowNumber, T value) {
+        return new BulkRow<>(rowNumber, value, null);
+    }
+
+    public static <T> BulkRow<T> invalid(int rowNumber, String error) {
+        return new BulkRow<>(rowNumber, null, error);
+    }
+
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
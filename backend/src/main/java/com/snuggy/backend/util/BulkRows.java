@@ -0,0 +1,129 @@
+package com.snuggy.backend.util;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Lazily reads bulk request bodies row by row, either as a JSON array or as CSV with a header line,
+ * so large uploads never have to be materialized in full.
+ */
+public final class BulkRows {
+
+    private BulkRows() {
+    }
+
+    public static <T> Iterator<BulkRow<T>> json(InputStream in, ObjectMapper objectMapper, Class<T> type) throws IOException {
+        MappingIterator<T> values = objectMapper.readerFor(type).readValues(in);
+        return new Iterator<>() {
+            private int rowNumber;
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public BulkRow<T> next() {
+                return BulkRow.of(++rowNumber, values.next());
+            }
+        };
+    }
+
+    public static <T> Iterator<BulkRow<T>> csv(InputStream in, Function<Map<String, String>, T> mapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        List<String> header = new ArrayList<>();
+        if (headerLine != null) {
+            for (String column : splitLine(headerLine)) {
+                header.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return new Iterator<>() {
+            private int rowNumber;
+            private String nextLine = advance();
+
+            @Override
+            public boolean hasNext() {
+                return nextLine != null;
+            }
+
+            @Override
+            public BulkRow<T> next() {
+                if (nextLine == null) {
+                    throw new NoSuchElementException();
+                }
+                String line = nextLine;
+                nextLine = advance();
+                rowNumber++;
+
+                List<String> fields = splitLine(line);
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                    values.put(header.get(i), fields.get(i).trim());
+                }
+                try {
+                    return BulkRow.of(rowNumber, mapper.apply(values));
+                } catch (RuntimeException e) {
+                    String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    return BulkRow.invalid(rowNumber, message);
+                }
+            }
+
+            private String advance() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,33 @@
+package com.snuggy.backend.util;
+
+import com.snuggy.backend.exception.BadRequestException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+public final class RequestDates {
+
+    private RequestDates() {
+    }
+
+    /**
+     * Parses a date filter given either as an ISO-8601 date-time with offset or as a plain date,
+     * which is taken as the start of that day in UTC.
+     */
+    public static Timestamp parse(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                return Timestamp.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+            return Timestamp.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid " + name + " date: " + value);
+        }
+    }
+}
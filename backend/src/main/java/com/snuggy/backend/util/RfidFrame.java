@@ -0,0 +1,128 @@
+package com.snuggy.backend.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Wire format spoken between counter RFID readers and {@code RfidReaderListener}. Every frame is a
+ * 4-byte big-endian length followed by that many bytes. A tap frame's body is
+ *
+ * <pre>
+ *   version (1) | reader id length (1) | reader id (UTF-8) | uid length (1) | uid (UTF-8)
+ *   | timestamp, epoch millis (8) | HMAC-SHA256 of everything before it (32)
+ * </pre>
+ *
+ * keyed with the reader's shared secret. Reply bodies are UTF-8 JSON.
+ */
+public final class RfidFrame {
+
+    public static final byte VERSION = 1;
+    public static final int MAX_BODY_LENGTH = 1024;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private RfidFrame() {
+    }
+
+    public static byte[] encodeTap(String readerId, String uid, long timestamp, byte[] secret) {
+        byte[] reader = readerId.getBytes(StandardCharsets.UTF_8);
+        byte[] card = uid.getBytes(StandardCharsets.UTF_8);
+        if (reader.length > 255 || card.length > 255) {
+            throw new IllegalArgumentException("Reader id and UID must each fit in 255 bytes");
+        }
+        int signedLength = 1 + 1 + reader.length + 1 + card.length + 8;
+        ByteBuffer frame = ByteBuffer.allocate(4 + signedLength + MAC_LENGTH);
+        frame.putInt(signedLength + MAC_LENGTH);
+        frame.put(VERSION);
+        frame.put((byte) reader.length).put(reader);
+        frame.put((byte) card.length).put(card);
+        frame.putLong(timestamp);
+        frame.put(hmac(secret, frame.array(), 4, signedLength));
+        return frame.array();
+    }
+
+    public static byte[] encodeReply(byte[] body) {
+        return ByteBuffer.allocate(4 + body.length).putInt(body.length).put(body).array();
+    }
+
+    /**
+     * Parses a tap body, without its length prefix. The MAC is not checked here; see {@link Tap#isSignedWith}.
+     */
+    public static Tap decodeTap(byte[] body) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported frame version");
+            }
+            String readerId = readString(buffer);
+            String uid = readString(buffer);
+            long timestamp = buffer.getLong();
+            int signedLength = buffer.position();
+            byte[] mac = new byte[MAC_LENGTH];
+            buffer.get(mac);
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after tap frame");
+            }
+            return new Tap(readerId, uid, timestamp, body, signedLength, mac);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated tap frame");
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.get() & 0xFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] hmac(byte[] secret, byte[] data, int offset, int length) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            mac.update(data, offset, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is unavailable", e);
+        }
+    }
+
+    public static final class Tap {
+        private final String readerId;
+        private final String uid;
+        private final long timestamp;
+        private final byte[] body;
+        private final int signedLength;
+        private final byte[] mac;
+
+        private Tap(String readerId, String uid, long timestamp, byte[] body, int signedLength, byte[] mac) {
+            this.readerId = readerId;
+            this.uid = uid;
+            this.timestamp = timestamp;
+            this.body = body;
+            this.signedLength = signedLength;
+            this.mac = mac;
+        }
+
+        public String getReaderId() {
+            return readerId;
+        }
+
+        public String getUid() {
+            return uid;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public boolean isSignedWith(byte[] secret) {
+            return MessageDigest.isEqual(mac, hmac(secret, body, 0, signedLength));
+        }
+    }
+}
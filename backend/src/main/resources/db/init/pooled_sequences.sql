@@ -0,0 +1,5 @@
+-- Runs on every startup, before Hibernate validates its sequence generators. Order and order item
+-- ids come from pooled sequences (allocationSize = 50), so the sequence increment must be 50 too;
+-- Flyway is disabled, so V1.17 alone never reaches an existing database. Idempotent.
+ALTER SEQUENCE IF EXISTS orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS order_items_id_seq INCREMENT BY 50;
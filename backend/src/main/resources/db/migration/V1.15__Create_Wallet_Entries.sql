@@ -0,0 +1,13 @@
+CREATE TABLE wallet_entries (
+    id BIGSERIAL PRIMARY KEY,
+    student_id INTEGER NOT NULL REFERENCES users(id),
+    amount NUMERIC(19, 2) NOT NULL,
+    entry_type VARCHAR(32) NOT NULL,
+    order_id INTEGER,
+    compacted BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Balance reads sum the uncompacted tail per student; keep that lookup on a small partial index.
+CREATE INDEX idx_wallet_entries_uncompacted ON wallet_entries (student_id) WHERE compacted = FALSE;
+CREATE INDEX idx_wallet_entries_student_created_at ON wallet_entries (student_id, created_at);
@@ -0,0 +1,2 @@
+ALTER TABLE menu
+ADD COLUMN low_stock_threshold INTEGER;
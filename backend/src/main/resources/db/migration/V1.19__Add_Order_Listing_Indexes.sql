@@ -0,0 +1,8 @@
+-- Keyset pagination of the staff order listing walks (created_at, id) newest first,
+-- optionally narrowed by status or student.
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_student_created_at_id ON orders (student_id, created_at DESC, id DESC);
+
+-- Fetching the item graph for a page of orders.
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
@@ -0,0 +1,100 @@
+package com.snuggy.backend.payload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.Order;
+import com.snuggy.backend.entity.OrderItem;
+import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.entity.Role;
+import com.snuggy.backend.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderDetailDTOTest {
+
+    private static final int ORDER_COUNT = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testDtoPayloadIsSmallerAndOmitsPrivateUserFields() throws Exception {
+        List<Order> orders = orders();
+        List<OrderDetailDTO> details = toDetails(orders);
+
+        String entityJson = objectMapper.writeValueAsString(orders);
+        String dtoJson = objectMapper.writeValueAsString(details);
+
+        assertTrue(dtoJson.length() < entityJson.length(),
+                "DTO payload " + dtoJson.length() + " bytes, entity payload " + entityJson.length() + " bytes");
+        assertTrue(entityJson.contains("fcmToken"));
+        assertFalse(dtoJson.contains("fcmToken"));
+        assertFalse(dtoJson.contains("password"));
+        assertFalse(dtoJson.contains("roles"));
+        assertFalse(dtoJson.contains("email"));
+    }
+
+    private List<OrderDetailDTO> toDetails(List<Order> orders) {
+        return orders.stream()
+                .map(order -> OrderDetailDTO.from(order, item -> item.getMenuItem().getName()))
+                .collect(Collectors.toList());
+    }
+
+    private List<Order> orders() {
+        Role role = new Role();
+        role.setId(1);
+        role.setName(Role.ERole.ROLE_STUDENT);
+
+        List<Menu> menuItems = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Menu menu = new Menu();
+            menu.setId(i + 1);
+            menu.setName("Menu item " + i);
+            menu.setPrice(BigDecimal.valueOf(40 + i));
+            menu.setStock(100);
+            menu.setImageUrl("https://images.example.com/menu/" + i + ".jpg");
+            menu.setTags(Set.of());
+            menuItems.add(menu);
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Order> orders = new ArrayList<>(ORDER_COUNT);
+        long itemId = 1;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            User user = new User();
+            user.setId(i + 1);
+            user.setName("Student " + i);
+            user.setEmail("student" + i + "@example.com");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUV");
+            user.setFcmToken("fcm-token-" + i + "-abcdefghijklmnopqrstuvwxyz0123456789");
+            user.setCreatedAt(now);
+            user.setRoles(Set.of(role));
+
+            Order order = new Order();
+            order.setId(i + 1);
+            order.setUser(user);
+            order.setStatus(OrderStatus.PAID);
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < 3; j++) {
+                Menu menu = menuItems.get((i + j) % menuItems.size());
+                OrderItem item = new OrderItem(order, menu, j + 1, menu.getPrice());
+                item.setId(itemId++);
+                order.getOrderItems().add(item);
+                total = total.add(menu.getPrice().multiply(BigDecimal.valueOf(j + 1)));
+            }
+            order.setTotalAmount(total);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
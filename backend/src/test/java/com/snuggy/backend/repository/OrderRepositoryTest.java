@@ -0,0 +1,86 @@
+package com.snuggy.backend.repository;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.Order;
+import com.snuggy.backend.entity.OrderItem;
+import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private final List<Menu> menuItems = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test Student");
+        user.setEmail("student@test.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+        for (int i = 0; i < 5; i++) {
+            Menu menu = new Menu();
+            menu.setName("Item " + i);
+            menu.setPrice(BigDecimal.TEN);
+            menu.setStock(100);
+            entityManager.persist(menu);
+            menuItems.add(menu);
+        }
+        // A fresh pooled sequence hands out a single id on its first fetch and a block of 50 on the
+        // second, so two warm-up orders leave enough ids that the measured save fetches none.
+        orderRepository.saveAndFlush(newOrder(1));
+        orderRepository.saveAndFlush(newOrder(1));
+        entityManager.clear();
+    }
+
+    @Test
+    public void savingAnOrderWritesOneOrderInsertAndOneItemBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Order saved = orderRepository.saveAndFlush(newOrder(menuItems.size()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(saved.getCreatedAt()).isNotNull();
+        assertThat(saved.getOrderItems()).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+    }
+
+    private Order newOrder(int itemCount) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(OrderStatus.PAID);
+        order.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(itemCount)));
+        order.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+        for (int i = 0; i < itemCount; i++) {
+            order.getOrderItems().add(new OrderItem(order, menuItems.get(i), 1, BigDecimal.TEN));
+        }
+        return order;
+    }
+}
@@ -0,0 +1,125 @@
+package com.snuggy.backend.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.SendResponse;
+import com.snuggy.backend.payload.PushMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FcmPushBackendTest {
+
+    @Mock
+    private FirebaseMessaging fcm;
+
+    private FcmPushBackend backend;
+
+    @BeforeEach
+    public void setUp() {
+        backend = new FcmPushBackend(fcm);
+    }
+
+    @Test
+    public void testBatchIsSentInOneSendEachCall() throws Exception {
+        List<PushMessage> messages = new ArrayList<>();
+        List<SendResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.add(new PushMessage("token-" + i, "Order ready", "Order " + i, Map.of("orderId", String.valueOf(i))));
+            responses.add(success());
+        }
+        BatchResponse response = batchResponse(responses);
+        when(fcm.sendEach(anyList())).thenReturn(response);
+
+        List<PushOutcome> outcomes = backend.sendEach(messages);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Message>> sent = ArgumentCaptor.forClass(List.class);
+        verify(fcm, times(1)).sendEach(sent.capture());
+        assertEquals(20, sent.getValue().size());
+        assertEquals(20, outcomes.size());
+        outcomes.forEach(outcome -> assertEquals(PushOutcome.SENT, outcome));
+    }
+
+    @Test
+    public void testOutcomesFollowPerMessageErrorCodes() throws Exception {
+        List<PushMessage> messages = List.of(message("a"), message("b"), message("c"), message("d"), message("e"));
+        BatchResponse response = batchResponse(List.of(
+                success(),
+                failure(MessagingErrorCode.UNREGISTERED),
+                failure(MessagingErrorCode.UNAVAILABLE),
+                failure(MessagingErrorCode.INVALID_ARGUMENT),
+                failure(null)));
+        when(fcm.sendEach(anyList())).thenReturn(response);
+
+        List<PushOutcome> outcomes = backend.sendEach(messages);
+
+        assertEquals(List.of(PushOutcome.SENT, PushOutcome.UNREGISTERED, PushOutcome.RETRYABLE,
+                PushOutcome.FAILED, PushOutcome.RETRYABLE), outcomes);
+    }
+
+    @Test
+    public void testWholeBatchFailureAppliesToEveryMessage() throws Exception {
+        FirebaseMessagingException error = error(MessagingErrorCode.QUOTA_EXCEEDED);
+        when(fcm.sendEach(anyList())).thenThrow(error);
+
+        List<PushOutcome> outcomes = backend.sendEach(List.of(message("a"), message("b")));
+
+        assertEquals(List.of(PushOutcome.RETRYABLE, PushOutcome.RETRYABLE), outcomes);
+    }
+
+    @Test
+    public void testLoggingBackendReportsEveryMessageSent() {
+        List<PushOutcome> outcomes = new LoggingPushBackend().sendEach(List.of(message("a"), message("b")));
+
+        assertEquals(List.of(PushOutcome.SENT, PushOutcome.SENT), outcomes);
+    }
+
+    private static PushMessage message(String token) {
+        return new PushMessage(token, "Order ready", "Your order is ready for collection", Map.of());
+    }
+
+    private static BatchResponse batchResponse(List<SendResponse> responses) {
+        BatchResponse response = mock(BatchResponse.class);
+        when(response.getResponses()).thenReturn(responses);
+        return response;
+    }
+
+    private static SendResponse success() {
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(true);
+        return response;
+    }
+
+    private static SendResponse failure(MessagingErrorCode code) {
+        FirebaseMessagingException error = error(code);
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(false);
+        when(response.getException()).thenReturn(error);
+        return response;
+    }
+
+    private static FirebaseMessagingException error(MessagingErrorCode code) {
+        FirebaseMessagingException error = mock(FirebaseMessagingException.class);
+        when(error.getMessagingErrorCode()).thenReturn(code);
+        return error;
+    }
+}
@@ -0,0 +1,130 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.Tag;
+import com.snuggy.backend.repository.MenuRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MenuSearchIndexTest {
+
+    private static final int MENU_SIZE = 10_000;
+    private static final int QUERY_COUNT = 2_000;
+
+    private static final String[] ADJECTIVES = {"spicy", "crispy", "grilled", "masala", "cheese", "paneer",
+            "butter", "garlic", "tandoori", "classic", "smoky", "sweet", "double", "veg", "chicken", "mini"};
+    private static final String[] DISHES = {"dosa", "burger", "sandwich", "noodles", "biryani", "wrap",
+            "pizza", "samosa", "paratha", "pasta", "fries", "momos", "roll", "thali", "idli", "pulao"};
+    private static final String[] TAGS = {"vegetarian", "vegan", "spicy", "breakfast", "snack", "beverage",
+            "dessert", "gluten-free", "combo", "special"};
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    @InjectMocks
+    private MenuSearchIndex menuSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        Random random = new Random(42);
+        List<Menu> menuItems = new ArrayList<>(MENU_SIZE);
+        menuItems.add(menu(1, "Masala Dosa", "breakfast", "vegetarian"));
+        menuItems.add(menu(2, "Cold Coffee", "beverage"));
+        for (int i = 3; i <= MENU_SIZE; i++) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + DISHES[random.nextInt(DISHES.length)] + " " + i;
+            menuItems.add(menu(i, name, TAGS[random.nextInt(TAGS.length)]));
+        }
+        when(menuRepository.findAllWithTags()).thenReturn(menuItems);
+        menuSearchIndex.load();
+    }
+
+    @Test
+    public void testExactNameRanksFirst() {
+        assertEquals(1, menuSearchIndex.search("masala dosa", 10).get(0));
+    }
+
+    @Test
+    public void testPrefixMatchesName() {
+        assertEquals(List.of(2), menuSearchIndex.search("cold cof", 10));
+    }
+
+    @Test
+    public void testTypoStillMatches() {
+        assertTrue(menuSearchIndex.search("coffe", 10).contains(2));
+    }
+
+    @Test
+    public void testTagMatches() {
+        assertTrue(menuSearchIndex.search("beverage", MENU_SIZE).contains(2));
+    }
+
+    @Test
+    public void testReindexReplacesPreviousTerms() {
+        menuSearchIndex.index(menu(2, "Iced Tea", "beverage"));
+
+        assertFalse(menuSearchIndex.search("cold coffee", 10).contains(2));
+        assertEquals(2, menuSearchIndex.search("iced tea", 10).get(0));
+    }
+
+    @Test
+    public void testSearchLatencyOnTenThousandItems() {
+        List<String> queries = new ArrayList<>();
+        for (String adjective : ADJECTIVES) {
+            queries.add(adjective);
+            queries.add(adjective.substring(0, 3));
+        }
+        for (String dish : DISHES) {
+            queries.add(dish);
+            queries.add(dish.substring(1));
+        }
+        queries.addAll(Arrays.asList("masala dosa", "chiken biryani", "panner wrap", "coffe"));
+
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            menuSearchIndex.search(queries.get(i % queries.size()), 20);
+        }
+
+        long[] nanos = new long[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            long start = System.nanoTime();
+            menuSearchIndex.search(queries.get(i % queries.size()), 20);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[QUERY_COUNT / 2] / 1_000;
+        long p99 = nanos[QUERY_COUNT * 99 / 100] / 1_000;
+
+        // Loose bounds so that slow CI machines pass.
+        assertTrue(p50 < 10_000, "p50 search latency " + p50 + " us");
+        assertTrue(p99 < 50_000, "p99 search latency " + p99 + " us");
+    }
+
+    private static Menu menu(int id, String name, String... tagNames) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName(name);
+        Set<Tag> tags = new HashSet<>();
+        for (String tagName : tagNames) {
+            tags.add(new Tag(tagName));
+        }
+        menu.setTags(tags);
+        return menu;
+    }
+}
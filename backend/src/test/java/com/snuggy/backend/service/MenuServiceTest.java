@@ -0,0 +1,91 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.repository.MenuRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MenuServiceTest {
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private MenuService menuService;
+
+    @BeforeEach
+    public void setUp() {
+        when(menuRepository.findAllWithTags()).thenAnswer(invocation -> List.of(menu(1, 10)));
+    }
+
+    @Test
+    public void testStockChangesDoNotRebuildWithinRefreshInterval() {
+        ReflectionTestUtils.setField(menuService, "stockRefreshMs", 60_000L);
+        when(menuRepository.reserveStock(any())).thenReturn(Map.of(1, 9));
+        MenuSnapshot first = menuService.getMenuSnapshot();
+
+        menuService.reserveStock(Map.of(1, 1));
+        menuService.releaseStock(Map.of(1, 1));
+
+        assertSame(first, menuService.getMenuSnapshot());
+        verify(menuRepository, times(1)).findAllWithTags();
+    }
+
+    @Test
+    public void testStockChangesRebuildOnceIntervalHasPassed() {
+        ReflectionTestUtils.setField(menuService, "stockRefreshMs", 0L);
+        MenuSnapshot first = menuService.getMenuSnapshot();
+
+        menuService.releaseStock(Map.of(1, 1));
+        MenuSnapshot second = menuService.getMenuSnapshot();
+
+        assertNotEquals(first.getETag(), second.getETag());
+        assertSame(second, menuService.getMenuSnapshot());
+        verify(menuRepository, times(2)).findAllWithTags();
+    }
+
+    @Test
+    public void testCatalogueEditRebuildsImmediately() {
+        ReflectionTestUtils.setField(menuService, "stockRefreshMs", 60_000L);
+        MenuSnapshot first = menuService.getMenuSnapshot();
+
+        menuService.invalidateMenuSnapshot();
+
+        assertNotEquals(first.getETag(), menuService.getMenuSnapshot().getETag());
+        verify(menuRepository, times(2)).findAllWithTags();
+    }
+
+    private static Menu menu(Integer id, int stock) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName("Item " + id);
+        menu.setPrice(new BigDecimal("50.00"));
+        menu.setStock(stock);
+        return menu;
+    }
+}
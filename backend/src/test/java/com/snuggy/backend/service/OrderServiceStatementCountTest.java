@@ -0,0 +1,182 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.Balance;
+import com.snuggy.backend.entity.Menu;
+import com.snuggy.backend.entity.User;
+import com.snuggy.backend.payload.OrderDetailDTO;
+import com.snuggy.backend.payload.OrderItemRequest;
+import com.snuggy.backend.payload.OrderRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements one {@link OrderService#createOrder} prepares, Hibernate's and
+ * JdbcTemplate's alike. A JDBC batch counts once. Stock runs in memory mode, since the database
+ * reservation is PostgreSQL-only SQL.
+ */
+@DataJpaTest
+@Import({OrderService.class, MenuService.class, BalanceService.class, TransactionService.class,
+        OutboxService.class, StockLedger.class, OrderServiceStatementCountTest.CountingConfig.class})
+@TestPropertySource(properties = "app.stock.mode=memory")
+public class OrderServiceStatementCountTest {
+
+    // Only statements from the test thread count; scheduled jobs share the data source.
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static volatile Thread measuredThread;
+    private static final Set<String> PREPARING_METHODS = Set.of("prepareStatement", "createStatement", "prepareCall");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private ActiveOrderIndex activeOrderIndex;
+
+    @MockitoBean
+    private PushNotificationService pushNotificationService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private StockAlertAggregator stockAlertAggregator;
+
+    @MockitoBean
+    private MenuSearchIndex menuSearchIndex;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private final List<Menu> menuItems = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test Student");
+        user.setEmail("student@test.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+        Balance balance = new Balance();
+        balance.setUser(user);
+        balance.setAmount(new BigDecimal("1000.00"));
+        entityManager.persist(balance);
+        for (int i = 0; i < 5; i++) {
+            Menu menu = new Menu();
+            menu.setName("Item " + i);
+            menu.setPrice(BigDecimal.TEN);
+            menu.setStock(100);
+            entityManager.persist(menu);
+            stockLedger.track(menu.getId(), menu.getStock());
+            menuItems.add(menu);
+        }
+        entityManager.flush();
+        // Same warm-up as OrderRepositoryTest: two orders leave the pooled sequences holding a block
+        // of ids, so the measured order fetches none.
+        orderService.createOrder(request(1), user.getId());
+        orderService.createOrder(request(1), user.getId());
+        entityManager.clear();
+    }
+
+    /**
+     * Eight statements: user with roles, menu summaries, order insert, order item batch, transaction
+     * insert, outbox insert (identity id, so not batched), guarded balance debit and wallet entry
+     * append. Each writes a different table, so they cannot share a JDBC batch.
+     */
+    @Test
+    public void creatingAnOrderPreparesEightStatements() {
+        statements.clear();
+        measuredThread = Thread.currentThread();
+
+        OrderDetailDTO order = orderService.createOrder(request(menuItems.size()), user.getId());
+        // Committed so the wallet entry, appended just before commit, is counted too.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        measuredThread = null;
+
+        assertThat(statements).hasSize(8);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("50.00");
+    }
+
+    private OrderRequest request(int itemCount) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setMenuItemId(menuItems.get(i).getId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setItems(items);
+        return request;
+    }
+
+    @TestConfiguration
+    static class CountingConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource counting(DataSource target) {
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection connection ? counting(connection) : result;
+                    });
+        }
+
+        private static Connection counting(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (PREPARING_METHODS.contains(method.getName()) && Thread.currentThread() == measuredThread) {
+                            statements.add(args == null ? method.getName() : String.valueOf(args[0]));
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.OutboxEvent;
+import com.snuggy.backend.entity.OutboxEventType;
+import com.snuggy.backend.payload.PushMessage;
+import com.snuggy.backend.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PushNotificationService pushNotificationService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OutboxService outboxService;
+
+    @Test
+    public void testRelayLeavesTransientlyFailedPushUnpublished() throws Exception {
+        OutboxEvent newOrder = event(1L, 10, OutboxEventType.NEW_ORDER, null);
+        OutboxEvent sent = notice(2L, 11);
+        OutboxEvent retryable = notice(3L, 12);
+        OutboxEvent later = event(4L, 13, OutboxEventType.NEW_ORDER, null);
+        when(outboxEventRepository.claimBatch(anyInt())).thenReturn(List.of(newOrder, sent, retryable, later));
+        when(pushNotificationService.sendNow(anyList())).thenReturn(List.of(PushOutcome.SENT, PushOutcome.RETRYABLE));
+
+        outboxService.relay();
+
+        verify(notificationService).sendNewOrderNotification(10);
+        verify(pushNotificationService, times(1)).sendNow(anyList());
+        verify(notificationService, never()).sendNewOrderNotification(13);
+        verify(outboxEventRepository).markPublished(List.of(1L, 2L));
+    }
+
+    @Test
+    public void testRelayPublishesPushWithFinalOutcome() throws Exception {
+        OutboxEvent sent = notice(2L, 11);
+        OutboxEvent unregistered = notice(3L, 12);
+        OutboxEvent later = event(4L, 13, OutboxEventType.ORDER_CONFIRMED, null);
+        when(outboxEventRepository.claimBatch(anyInt())).thenReturn(List.of(sent, unregistered, later));
+        when(pushNotificationService.sendNow(anyList())).thenReturn(List.of(PushOutcome.SENT, PushOutcome.UNREGISTERED));
+
+        outboxService.relay();
+
+        verify(notificationService).sendOrderConfirmationToStaff(13);
+        verify(outboxEventRepository).markPublished(List.of(2L, 3L, 4L));
+    }
+
+    private OutboxEvent notice(Long id, Integer orderId) throws Exception {
+        return event(id, orderId, OutboxEventType.COLLECTION_NOTICE,
+                objectMapper.writeValueAsString(new PushMessage("token-" + orderId, "Ready", "Order " + orderId, Map.of())));
+    }
+
+    private OutboxEvent event(Long id, Integer orderId, OutboxEventType type, String payload) {
+        OutboxEvent event = new OutboxEvent(orderId, type, payload);
+        event.setId(id);
+        return event;
+    }
+}
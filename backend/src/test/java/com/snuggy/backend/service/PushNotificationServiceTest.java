@@ -0,0 +1,174 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.payload.PushMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PushNotificationServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    private final FakePushBackend backend = new FakePushBackend();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PushNotificationService pushNotificationService;
+
+    @AfterEach
+    public void tearDown() {
+        if (pushNotificationService != null) {
+            pushNotificationService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSendSkipsMessageWithoutToken() {
+        pushNotificationService = service(10);
+
+        assertFalse(pushNotificationService.send(message(" ")));
+        assertEquals(0, backend.batches.size());
+    }
+
+    @Test
+    public void testSendDropsMessageWhenQueueIsFull() {
+        pushNotificationService = service(1);
+
+        assertTrue(pushNotificationService.send(message("token-1")));
+        assertFalse(pushNotificationService.send(message("token-2")));
+        assertEquals(1.0, meterRegistry.counter("push.dropped").count());
+        assertEquals(1.0, meterRegistry.get("push.queue.depth").gauge().value());
+    }
+
+    @Test
+    public void testQueuedMessagesAreDeliveredInOneBatch() {
+        pushNotificationService = service(10);
+        for (int i = 0; i < 3; i++) {
+            pushNotificationService.send(message("token-" + i));
+        }
+
+        pushNotificationService.start();
+
+        await(() -> meterRegistry.counter("push.sent").count() == 3.0);
+        assertEquals(1, backend.batches.size());
+        assertEquals(3, backend.batches.get(0).size());
+        assertEquals(3, meterRegistry.get("push.latency").timer().count());
+    }
+
+    @Test
+    public void testRetryableFailureIsRetried() {
+        backend.script(PushOutcome.RETRYABLE, PushOutcome.RETRYABLE);
+        pushNotificationService = service(10);
+        pushNotificationService.start();
+
+        pushNotificationService.send(message("token-1"));
+
+        await(() -> meterRegistry.counter("push.sent").count() == 1.0);
+        assertEquals(2.0, meterRegistry.counter("push.retried").count());
+        assertEquals(3, backend.batches.size());
+    }
+
+    @Test
+    public void testRetryableFailureGivesUpAfterMaxAttempts() {
+        backend.script(PushOutcome.RETRYABLE, PushOutcome.RETRYABLE, PushOutcome.RETRYABLE);
+        pushNotificationService = service(10);
+        pushNotificationService.start();
+
+        pushNotificationService.send(message("token-1"));
+
+        await(() -> meterRegistry.counter("push.failed").count() == 1.0);
+        assertEquals(0.0, meterRegistry.counter("push.sent").count());
+        assertEquals(2.0, meterRegistry.counter("push.retried").count());
+    }
+
+    @Test
+    public void testUnregisteredTokenIsCleared() {
+        backend.script(PushOutcome.UNREGISTERED);
+        when(userService.clearFcmTokens(Set.of("stale-token"))).thenReturn(1);
+        pushNotificationService = service(10);
+        pushNotificationService.start();
+
+        pushNotificationService.send(message("stale-token"));
+
+        verify(userService, timeout(2000)).clearFcmTokens(Set.of("stale-token"));
+        await(() -> meterRegistry.counter("push.tokens.cleared").count() == 1.0);
+        assertEquals(0.0, meterRegistry.counter("push.sent").count());
+    }
+
+    @Test
+    public void testSendNowReportsOutcomesWithoutQueueing() {
+        backend.script(PushOutcome.SENT, PushOutcome.RETRYABLE, PushOutcome.UNREGISTERED);
+        when(userService.clearFcmTokens(Set.of("token-3"))).thenReturn(1);
+        pushNotificationService = service(10);
+
+        List<PushOutcome> outcomes = pushNotificationService.sendNow(
+                List.of(message("token-1"), message("token-2"), message(""), message("token-3")));
+
+        assertEquals(List.of(PushOutcome.SENT, PushOutcome.RETRYABLE, PushOutcome.FAILED, PushOutcome.UNREGISTERED), outcomes);
+        assertEquals(1, backend.batches.size());
+        assertEquals(3, backend.batches.get(0).size());
+        assertEquals(0.0, meterRegistry.counter("push.retried").count());
+        assertEquals(1.0, meterRegistry.counter("push.tokens.cleared").count());
+    }
+
+    private PushNotificationService service(int queueCapacity) {
+        return new PushNotificationService(backend, userService, meterRegistry, queueCapacity, 1, 3, 1, 5);
+    }
+
+    private static PushMessage message(String token) {
+        return new PushMessage(token, "Order ready", "Your order is ready for collection", Map.of());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 2 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Records every batch it is handed and answers from a script of outcomes, one per message,
+     * falling back to SENT once the script runs out.
+     */
+    private static final class FakePushBackend implements PushBackend {
+        private final List<List<PushMessage>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final Deque<PushOutcome> outcomes = new ArrayDeque<>();
+
+        private synchronized void script(PushOutcome... scripted) {
+            Collections.addAll(outcomes, scripted);
+        }
+
+        @Override
+        public synchronized List<PushOutcome> sendEach(List<PushMessage> messages) {
+            batches.add(new ArrayList<>(messages));
+            List<PushOutcome> result = new ArrayList<>(messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                result.add(outcomes.isEmpty() ? PushOutcome.SENT : outcomes.poll());
+            }
+            return result;
+        }
+    }
+}
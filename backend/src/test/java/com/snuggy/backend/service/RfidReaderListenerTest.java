@@ -0,0 +1,152 @@
+package com.snuggy.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snuggy.backend.entity.OrderStatus;
+import com.snuggy.backend.exception.ResourceNotFoundException;
+import com.snuggy.backend.payload.PickupDTO;
+import com.snuggy.backend.util.RfidReaderClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RfidReaderListenerTest {
+
+    private static final String READER_ID = "counter-1";
+    private static final byte[] SECRET = "reader-secret".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RfidTapService rfidTapService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RfidReaderListener listener;
+    private int port;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        listener = new RfidReaderListener();
+        ReflectionTestUtils.setField(listener, "rfidTapService", rfidTapService);
+        ReflectionTestUtils.setField(listener, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(listener, "enabled", true);
+        ReflectionTestUtils.setField(listener, "host", "127.0.0.1");
+        ReflectionTestUtils.setField(listener, "port", 0);
+        ReflectionTestUtils.setField(listener, "workerCount", 1);
+        ReflectionTestUtils.setField(listener, "maxClockSkewMs", 30_000L);
+        ReflectionTestUtils.setField(listener, "secretList", READER_ID + "=reader-secret");
+        listener.start();
+        ServerSocketChannel server = (ServerSocketChannel) ReflectionTestUtils.getField(listener, "server");
+        port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        listener.stop();
+    }
+
+    @Test
+    public void testTapWithActiveOrderRepliesWithPickup() throws Exception {
+        PickupDTO pickup = new PickupDTO(42, OrderStatus.AWAITING_CONFIRMATION, new BigDecimal("120.00"),
+                new Timestamp(System.currentTimeMillis()), List.of());
+        when(rfidTapService.tap(READER_ID, "04A1B2C3D4")).thenReturn(new TapResult(Optional.of(pickup), false));
+
+        JsonNode reply;
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            reply = objectMapper.readTree(client.tap(READER_ID, "04A1B2C3D4", System.currentTimeMillis(), SECRET));
+        }
+
+        assertEquals("OK", reply.get("status").asText());
+        assertEquals("04A1B2C3D4", reply.get("uid").asText());
+        assertFalse(reply.get("repeat").asBoolean());
+        assertEquals(42, reply.get("order").get("id").asInt());
+    }
+
+    @Test
+    public void testConnectionServesSeveralTaps() throws Exception {
+        when(rfidTapService.tap(READER_ID, "04A1B2C3D4"))
+                .thenReturn(new TapResult(Optional.empty(), false))
+                .thenReturn(new TapResult(Optional.empty(), true));
+
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            JsonNode first = objectMapper.readTree(client.tap(READER_ID, "04A1B2C3D4", System.currentTimeMillis(), SECRET));
+            JsonNode second = objectMapper.readTree(client.tap(READER_ID, "04A1B2C3D4", System.currentTimeMillis(), SECRET));
+
+            assertEquals("NO_ACTIVE_ORDER", first.get("status").asText());
+            assertFalse(first.get("repeat").asBoolean());
+            assertTrue(second.get("repeat").asBoolean());
+        }
+    }
+
+    @Test
+    public void testUnknownCardIsReported() throws Exception {
+        when(rfidTapService.tap(READER_ID, "FFFFFFFF")).thenThrow(new ResourceNotFoundException("RFID not found"));
+
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            JsonNode reply = objectMapper.readTree(client.tap(READER_ID, "FFFFFFFF", System.currentTimeMillis(), SECRET));
+
+            assertEquals("UNKNOWN_CARD", reply.get("status").asText());
+        }
+    }
+
+    @Test
+    public void testWrongSecretIsUnauthorized() throws Exception {
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            JsonNode reply = objectMapper.readTree(client.tap(READER_ID, "04A1B2C3D4", System.currentTimeMillis(),
+                    "wrong-secret".getBytes(StandardCharsets.UTF_8)));
+
+            assertEquals("UNAUTHORIZED", reply.get("status").asText());
+        }
+        verify(rfidTapService, never()).tap(READER_ID, "04A1B2C3D4");
+    }
+
+    @Test
+    public void testUnknownReaderIsUnauthorized() throws Exception {
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            JsonNode reply = objectMapper.readTree(client.tap("counter-9", "04A1B2C3D4", System.currentTimeMillis(), SECRET));
+
+            assertEquals("UNAUTHORIZED", reply.get("status").asText());
+        }
+    }
+
+    @Test
+    public void testOldTimestampIsStale() throws Exception {
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            JsonNode reply = objectMapper.readTree(client.tap(READER_ID, "04A1B2C3D4", System.currentTimeMillis() - 60_000, SECRET));
+
+            assertEquals("STALE", reply.get("status").asText());
+        }
+        verify(rfidTapService, never()).tap(READER_ID, "04A1B2C3D4");
+    }
+
+    @Test
+    public void testMalformedFrameIsRejected() throws Exception {
+        byte[] garbage = {9, 9, 9};
+        byte[] frame = ByteBuffer.allocate(4 + garbage.length).putInt(garbage.length).put(garbage).array();
+
+        try (RfidReaderClient client = new RfidReaderClient("127.0.0.1", port)) {
+            JsonNode reply = objectMapper.readTree(client.send(frame));
+
+            assertEquals("BAD_FRAME", reply.get("status").asText());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.snuggy.backend.service;
+
+import com.snuggy.backend.entity.RfidMapping;
+import com.snuggy.backend.repository.RfidMappingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RfidServiceTest {
+
+    @Mock
+    private RfidMappingRepository rfidMappingRepository;
+
+    @Mock
+    private RfidUidCache rfidUidCache;
+
+    @Mock
+    private ScanSessionCache scanSessionCache;
+
+    @InjectMocks
+    private RfidService rfidService;
+
+    @Test
+    public void testReRegistrationDropsPreviousCard() {
+        when(rfidMappingRepository.findByStudentIdIn(List.of(7))).thenReturn(List.of(new RfidMapping("OLDCARD", 7)));
+        when(rfidMappingRepository.save(any(RfidMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        rfidService.registerRfid(new RfidMapping("NEWCARD", 7));
+
+        verify(rfidMappingRepository).deleteAllById(List.of("OLDCARD"));
+        verify(rfidUidCache).remove("OLDCARD");
+        verify(scanSessionCache).invalidate("OLDCARD");
+        verify(rfidUidCache).put("NEWCARD", 7);
+    }
+
+    @Test
+    public void testRegisteringSameCardAgainKeepsIt() {
+        when(rfidMappingRepository.findByStudentIdIn(List.of(7))).thenReturn(List.of(new RfidMapping("CARD", 7)));
+        when(rfidMappingRepository.save(any(RfidMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        rfidService.registerRfid(new RfidMapping("CARD", 7));
+
+        verify(rfidMappingRepository, never()).deleteAllById(anyList());
+        verify(rfidUidCache, never()).remove("CARD");
+        verify(rfidUidCache).put("CARD", 7);
+    }
+}
@@ -0,0 +1,49 @@
+package com.snuggy.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TapDebouncerTest {
+
+    @Test
+    public void testRepeatedScanIsFlagged() {
+        TapDebouncer debouncer = new TapDebouncer(60_000);
+
+        assertTrue(debouncer.register("counter-1", "04A1B2C3D4"));
+        assertFalse(debouncer.register("counter-1", "04A1B2C3D4"));
+    }
+
+    @Test
+    public void testOtherReaderOrCardIsNotARepeat() {
+        TapDebouncer debouncer = new TapDebouncer(60_000);
+        debouncer.register("counter-1", "04A1B2C3D4");
+
+        assertTrue(debouncer.register("counter-2", "04A1B2C3D4"));
+        assertTrue(debouncer.register("counter-1", "04FFFFFFFF"));
+    }
+
+    @Test
+    public void testContinuousScanningStaysARepeatAcrossWindows() throws Exception {
+        TapDebouncer debouncer = new TapDebouncer(100);
+        assertTrue(debouncer.register("counter-1", "04A1B2C3D4"));
+
+        // A card held against the reader for several windows keeps reporting every few milliseconds.
+        long end = System.currentTimeMillis() + 500;
+        while (System.currentTimeMillis() < end) {
+            Thread.sleep(2);
+            assertFalse(debouncer.register("counter-1", "04A1B2C3D4"));
+        }
+    }
+
+    @Test
+    public void testScanAfterQuietWindowIsNew() throws Exception {
+        TapDebouncer debouncer = new TapDebouncer(50);
+        debouncer.register("counter-1", "04A1B2C3D4");
+
+        Thread.sleep(150);
+
+        assertTrue(debouncer.register("counter-1", "04A1B2C3D4"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.snuggy.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RfidFrameTest {
+
+    private static final byte[] SECRET = "reader-secret".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testTapRoundTrip() {
+        byte[] frame = RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 1_700_000_000_000L, SECRET);
+
+        RfidFrame.Tap tap = RfidFrame.decodeTap(body(frame));
+
+        assertEquals("counter-1", tap.getReaderId());
+        assertEquals("04A1B2C3D4", tap.getUid());
+        assertEquals(1_700_000_000_000L, tap.getTimestamp());
+        assertTrue(tap.isSignedWith(SECRET));
+    }
+
+    @Test
+    public void testLengthPrefixCoversBody() {
+        byte[] frame = RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET);
+
+        assertEquals(frame.length - 4, ByteBuffer.wrap(frame).getInt());
+        assertTrue(frame.length - 4 <= RfidFrame.MAX_BODY_LENGTH);
+    }
+
+    @Test
+    public void testWrongSecretIsRejected() {
+        byte[] frame = RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET);
+
+        RfidFrame.Tap tap = RfidFrame.decodeTap(body(frame));
+
+        assertFalse(tap.isSignedWith("other-secret".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testTamperedUidIsRejected() {
+        byte[] body = body(RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET));
+        // Flip the last UID character: version, reader length, "counter-1", uid length, then the UID.
+        int lastUidByte = 1 + 1 + "counter-1".length() + 1 + "04A1B2C3D4".length() - 1;
+        body[lastUidByte] = (byte) '5';
+
+        RfidFrame.Tap tap = RfidFrame.decodeTap(body);
+
+        assertEquals("04A1B2C3D5", tap.getUid());
+        assertFalse(tap.isSignedWith(SECRET));
+    }
+
+    @Test
+    public void testTamperedMacIsRejected() {
+        byte[] body = body(RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET));
+        body[body.length - 1] ^= 1;
+
+        assertFalse(RfidFrame.decodeTap(body).isSignedWith(SECRET));
+    }
+
+    @Test
+    public void testUnsupportedVersionIsRejected() {
+        byte[] body = body(RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET));
+        body[0] = (byte) (RfidFrame.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> RfidFrame.decodeTap(body));
+    }
+
+    @Test
+    public void testTruncatedFrameIsRejected() {
+        byte[] body = body(RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET));
+
+        assertThrows(IllegalArgumentException.class, () -> RfidFrame.decodeTap(Arrays.copyOf(body, body.length - 1)));
+    }
+
+    @Test
+    public void testTrailingBytesAreRejected() {
+        byte[] body = body(RfidFrame.encodeTap("counter-1", "04A1B2C3D4", 0L, SECRET));
+
+        assertThrows(IllegalArgumentException.class, () -> RfidFrame.decodeTap(Arrays.copyOf(body, body.length + 1)));
+    }
+
+    @Test
+    public void testOverlongReaderIdIsRefused() {
+        String readerId = "r".repeat(256);
+
+        assertThrows(IllegalArgumentException.class, () -> RfidFrame.encodeTap(readerId, "04A1B2C3D4", 0L, SECRET));
+    }
+
+    @Test
+    public void testReplyCarriesLengthPrefix() {
+        byte[] body = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer reply = ByteBuffer.wrap(RfidFrame.encodeReply(body));
+
+        assertEquals(body.length, reply.getInt());
+        byte[] decoded = new byte[reply.remaining()];
+        reply.get(decoded);
+        assertEquals("{\"status\":\"OK\"}", new String(decoded, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] body(byte[] frame) {
+        return Arrays.copyOfRange(frame, 4, frame.length);
+    }
+}
@@ -0,0 +1,69 @@
+package com.snuggy.backend.util;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loopback client for the RFID reader listener. Sends signed taps over one connection and returns
+ * each reply. Runnable on its own against a local listener:
+ *
+ * <pre>
+ *   RfidReaderClient [host] [port] [readerId] [secret] [uid] [taps]
+ * </pre>
+ */
+public class RfidReaderClient implements Closeable {
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final DataInputStream in;
+
+    public RfidReaderClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(5000);
+        this.out = socket.getOutputStream();
+        this.in = new DataInputStream(socket.getInputStream());
+    }
+
+    public String tap(String readerId, String uid, long timestamp, byte[] secret) throws IOException {
+        return send(RfidFrame.encodeTap(readerId, uid, timestamp, secret));
+    }
+
+    /**
+     * Writes a raw frame, length prefix included, and waits for the reply body.
+     */
+    public String send(byte[] frame) throws IOException {
+        out.write(frame);
+        out.flush();
+        byte[] reply = new byte[in.readInt()];
+        in.readFully(reply);
+        return new String(reply, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9400;
+        String readerId = args.length > 2 ? args[2] : "counter-1";
+        String secret = args.length > 3 ? args[3] : "change-me";
+        String uid = args.length > 4 ? args[4] : "04A1B2C3D4";
+        int taps = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+
+        try (RfidReaderClient client = new RfidReaderClient(host, port)) {
+            for (int i = 0; i < taps; i++) {
+                long start = System.nanoTime();
+                String reply = client.tap(readerId, uid, System.currentTimeMillis(), secret.getBytes(StandardCharsets.UTF_8));
+                long micros = (System.nanoTime() - start) / 1000;
+                System.out.println(reply + " (" + micros + " us)");
+            }
+        }
+    }
+}